@@ -0,0 +1,95 @@
+#!/usr/bin/env bash
+#
+# Startup benchmark of spring-ituner: measures the time until the first request is answered and
+# the resident memory (RSS) at that point, for the default build and for the startup-optimized run
+# mode (AOT-processed bean definitions, a JDK AOT cache of the loaded classes and the "startup"
+# Spring profile).
+#
+# Usage: scripts/startup-benchmark.sh [runs]    (5 runs per mode by default)
+#
+# Needs JDK 25, Maven and curl. Nothing is called upstream: the first request is /health, which
+# checks the database. /stats/genres is not used, as it answers 503 until the catalog statistics
+# have been filled in the background.
+
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-18080}"
+URL="http://localhost:${PORT}/health"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+WORK="${ROOT}/target/startup-benchmark"
+JAR="spring-ituner-1.0.jar"
+AOT_CACHE="${WORK}/startup/app.aot"
+OPTIMIZED=(-Dspring.aot.enabled=true -Dspring.profiles.active=startup
+  -jar "${WORK}/startup/${JAR}")
+
+# Builds the jar, with the given extra Maven arguments.
+build() {
+  mvn -B -q -f "${ROOT}/pom.xml" -DskipTests -Dspotbugs.skip=true -Djacoco.skip=true "$@" \
+    clean package
+}
+
+# Starts the application with the given JVM arguments and waits for its first response.
+# Sets PID, ELAPSED_MS and RSS_KB.
+start() {
+  local log="$1"
+  shift
+  local begin
+  begin=$(date +%s%N)
+  java "$@" --server.port="${PORT}" >"${log}" 2>&1 &
+  PID=$!
+  until curl -sf -o /dev/null "${URL}"; do
+    if ! kill -0 "${PID}" 2>/dev/null; then
+      echo "Application exited before answering, see ${log}" >&2
+      exit 1
+    fi
+    sleep 0.01
+  done
+  ELAPSED_MS=$((($(date +%s%N) - begin) / 1000000))
+  RSS_KB=$(ps -o rss= -p "${PID}" | tr -d ' ')
+}
+
+stop() {
+  kill -TERM "${PID}"
+  wait "${PID}" 2>/dev/null || true
+}
+
+# Starts the application RUNS times and prints the mean time to first request and RSS.
+measure() {
+  local label="$1"
+  shift
+  local total_ms=0 total_kb=0
+  for ((run = 1; run <= RUNS; run++)); do
+    start "${WORK}/${label}.log" "$@"
+    stop
+    total_ms=$((total_ms + ELAPSED_MS))
+    total_kb=$((total_kb + RSS_KB))
+  done
+  printf '%-10s %8d ms %8d MB\n' "${label}" $((total_ms / RUNS)) $((total_kb / RUNS / 1024))
+}
+
+rm -rf "${WORK}"
+mkdir -p "${WORK}"
+
+echo "Building the default jar..."
+build
+cp "${ROOT}/target/${JAR}" "${WORK}/default.jar"
+
+echo "Building the startup-optimized jar..."
+build -Pstartup
+# The JDK AOT cache needs a stable class path of plain jars, so the fat jar is extracted.
+java -Djarmode=tools -jar "${ROOT}/target/${JAR}" extract --destination "${WORK}/startup"
+
+echo "Recording the AOT cache in a training run..."
+# The training run serves a first request, so the classes it loads are cached as well.
+start "${WORK}/training.log" -XX:AOTCacheOutput="${AOT_CACHE}" "${OPTIMIZED[@]}"
+stop
+if [[ ! -f "${AOT_CACHE}" ]]; then
+  echo "No AOT cache was written, see ${WORK}/training.log" >&2
+  exit 1
+fi
+
+echo
+printf '%-10s %11s %11s\n' "mode" "first req." "RSS"
+measure default -jar "${WORK}/default.jar"
+measure startup -XX:AOTCache="${AOT_CACHE}" "${OPTIMIZED[@]}"
@@ -0,0 +1,279 @@
+package com.solo.learning.tdourado.actuator;
+
+import com.solo.learning.tdourado.api.limit.AdaptiveConcurrencyLimiter;
+import com.solo.learning.tdourado.api.upstream.UpstreamMonitor;
+import com.solo.learning.tdourado.cache.StorefrontPartitionedCache;
+import com.solo.learning.tdourado.config.CatalogCacheProperties;
+import com.solo.learning.tdourado.persistence.cache.CatalogCacheMetrics;
+import com.solo.learning.tdourado.sync.ArtistSyncState;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint showing how the iTunes path behaves right now, and tuning it without a
+ * restart.
+ *
+ * <ul>
+ *   <li>{@code GET /ituner} reports the sync state cache per storefront, the catalog cache
+ *       regions, the iTunes calls and the concurrency limiter.
+ *   <li>{@code DELETE /ituner} flushes every cache; {@code DELETE /ituner/{cache}} flushes the
+ *       {@code sync-state} cache or a single catalog cache region.
+ *   <li>{@code POST /ituner/{cache}} with {@code capacity} (and {@code storefront} for the {@code
+ *       sync-state} cache) resizes a cache.
+ *   <li>{@code POST /ituner} with {@code upstreamTimeout} changes the timeout of the iTunes calls.
+ * </ul>
+ *
+ * <p>Runtime changes are not persisted: a restart goes back to the configured values. The endpoint
+ * is read-only unless {@code management.endpoint.ituner.access} is set to {@code unrestricted},
+ * which should only be done with the actuator on an internal {@code management.server.port}.
+ *
+ * @author tiberiusdourado
+ */
+@Slf4j
+@Component
+@Endpoint(id = "ituner")
+public class ItunerEndpoint {
+
+  /** Name of the in-memory discography sync state cache. */
+  public static final String SYNC_STATE = "sync-state";
+
+  // How many of the most recently used keys to list per storefront.
+  private static final int RECENT_KEYS = 10;
+
+  // iTunes storefronts are identified by ISO 3166-1 alpha-2 country codes.
+  private static final Pattern COUNTRY_CODE = Pattern.compile("[A-Za-z]{2}");
+
+  private final StorefrontPartitionedCache<ArtistSyncState> syncStates;
+  private final EntityManagerFactory entityManagerFactory;
+  private final CacheManager catalogCacheManager;
+  private final CatalogCacheProperties catalogCacheProperties;
+  private final UpstreamMonitor upstreamMonitor;
+  private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+  /**
+   * Constructor for the ItunerEndpoint.
+   *
+   * @param syncStates The discography sync states, partitioned per storefront.
+   * @param entityManagerFactory The EntityManagerFactory owning the catalog cache.
+   * @param catalogCacheManager The CacheManager holding the catalog cache regions.
+   * @param catalogCacheProperties The catalog cache settings listing the regions.
+   * @param upstreamMonitor The monitor of the iTunes calls.
+   * @param concurrencyLimiter The limiter of the concurrent iTunes requests.
+   */
+  public ItunerEndpoint(
+      StorefrontPartitionedCache<ArtistSyncState> syncStates,
+      EntityManagerFactory entityManagerFactory,
+      CacheManager catalogCacheManager,
+      CatalogCacheProperties catalogCacheProperties,
+      UpstreamMonitor upstreamMonitor,
+      AdaptiveConcurrencyLimiter concurrencyLimiter) {
+    this.syncStates = syncStates;
+    this.entityManagerFactory = entityManagerFactory;
+    this.catalogCacheManager = catalogCacheManager;
+    this.catalogCacheProperties = catalogCacheProperties;
+    this.upstreamMonitor = upstreamMonitor;
+    this.concurrencyLimiter = concurrencyLimiter;
+  }
+
+  /**
+   * Reports the current state of the caches, the iTunes calls and the concurrency limiter.
+   *
+   * @return A snapshot of the iTunes path.
+   */
+  @ReadOperation
+  public ItunerReport report() {
+    Statistics statistics = sessionFactory().getStatistics();
+    Map<String, RegionReport> regions = new TreeMap<>();
+    for (String region : catalogCacheProperties.getRegions().keySet()) {
+      regions.put(region, regionReport(statistics, region));
+    }
+
+    return new ItunerReport(
+        syncStates.stats(RECENT_KEYS),
+        regions,
+        upstreamMonitor.snapshot(),
+        new LimiterReport(
+            concurrencyLimiter.getLimit(),
+            concurrencyLimiter.getInFlight(),
+            concurrencyLimiter.getRejected(),
+            concurrencyLimiter.retryAfterSeconds()));
+  }
+
+  /** Flushes the sync state cache and every catalog cache region. */
+  @DeleteOperation
+  public void flushAll() {
+    syncStates.clear();
+    sessionFactory().getCache().evictAllRegions();
+    log.info("Flushed the sync state cache and every catalog cache region");
+  }
+
+  /**
+   * Flushes a single cache.
+   *
+   * @param cache {@value #SYNC_STATE} or the name of a catalog cache region.
+   */
+  @DeleteOperation
+  public void flush(final @Selector @NotNull String cache) {
+    if (SYNC_STATE.equals(cache)) {
+      syncStates.clear();
+    } else {
+      requireRegion(cache);
+      sessionFactory().getCache().evictRegion(cache);
+    }
+    log.info("Flushed cache '{}'", cache);
+  }
+
+  /**
+   * Resizes a cache, evicting its least recently used entries if it now holds too many.
+   *
+   * @param cache {@value #SYNC_STATE} or the name of a catalog cache region.
+   * @param storefront The storefront (two-letter country code) whose partition to resize, required
+   *     for {@value #SYNC_STATE}.
+   * @param capacity The new maximum number of entries, or of albums for {@value #SYNC_STATE}.
+   */
+  @WriteOperation
+  public void resize(
+      final @Selector @NotNull String cache, @Nullable String storefront, int capacity) {
+    if (capacity < 1) {
+      throw new InvalidEndpointRequestException(
+          "Capacity must be at least 1", "Invalid capacity " + capacity);
+    }
+
+    if (SYNC_STATE.equals(cache)) {
+      if (storefront == null || !COUNTRY_CODE.matcher(storefront).matches()) {
+        throw new InvalidEndpointRequestException(
+            "A two-letter storefront is required to resize " + SYNC_STATE,
+            "Invalid storefront " + storefront);
+      }
+      String country = storefront.toUpperCase(Locale.ROOT);
+      syncStates.resize(country, capacity);
+      log.info("Resized the {} cache of {} to {} albums", SYNC_STATE, country, capacity);
+    } else {
+      requireRegion(cache);
+      com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine =
+          caffeine(cache)
+              .orElseThrow(
+                  () ->
+                      new InvalidEndpointRequestException(
+                          "Catalog cache region '" + cache + "' cannot be resized",
+                          "Region not backed by Caffeine"));
+      caffeine.policy().eviction().orElseThrow().setMaximum(capacity);
+      log.info("Resized catalog cache region '{}' to {} entries", cache, capacity);
+    }
+  }
+
+  /**
+   * Changes the timeout of the iTunes calls started from now on.
+   *
+   * @param upstreamTimeout The new timeout, e.g. {@code 5s}.
+   */
+  @WriteOperation
+  public void configure(final @NotNull Duration upstreamTimeout) {
+    try {
+      upstreamMonitor.setTimeout(upstreamTimeout);
+    } catch (IllegalArgumentException exception) {
+      throw new InvalidEndpointRequestException(exception.getMessage(), "Invalid timeout");
+    }
+    log.info("Changed the iTunes timeout to {}", upstreamTimeout);
+  }
+
+  private RegionReport regionReport(Statistics statistics, String region) {
+    CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+    Optional<com.github.benmanes.caffeine.cache.Cache<?, ?>> caffeine = caffeine(region);
+    double hitRatio = CatalogCacheMetrics.hitRatio(statistics, region);
+    return new RegionReport(
+        caffeine.map(com.github.benmanes.caffeine.cache.Cache::estimatedSize).orElse(null),
+        caffeine
+            .flatMap(cache -> cache.policy().eviction())
+            .map(eviction -> eviction.getMaximum())
+            .orElse(null),
+        regionStatistics == null ? 0 : regionStatistics.getHitCount(),
+        regionStatistics == null ? 0 : regionStatistics.getMissCount(),
+        regionStatistics == null ? 0 : regionStatistics.getPutCount(),
+        Double.isNaN(hitRatio) ? null : hitRatio);
+  }
+
+  private Optional<com.github.benmanes.caffeine.cache.Cache<?, ?>> caffeine(String region) {
+    Cache<Object, Object> cache = catalogCacheManager.getCache(region);
+    if (cache == null) {
+      return Optional.empty();
+    }
+    try {
+      com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine =
+          cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+      return Optional.of(caffeine);
+    } catch (IllegalArgumentException exception) {
+      return Optional.empty();
+    }
+  }
+
+  private void requireRegion(String region) {
+    if (!catalogCacheProperties.getRegions().containsKey(region)) {
+      throw new InvalidEndpointRequestException(
+          "Unknown cache '" + region + "', expected " + SYNC_STATE + " or one of "
+              + catalogCacheProperties.getRegions().keySet(),
+          "Unknown cache");
+    }
+  }
+
+  private SessionFactory sessionFactory() {
+    return entityManagerFactory.unwrap(SessionFactory.class);
+  }
+
+  /**
+   * Snapshot of the iTunes path.
+   *
+   * @param syncStates The sync state cache, per storefront.
+   * @param catalogCache The catalog cache, per region.
+   * @param upstream The iTunes calls.
+   * @param limiter The concurrency limiter in front of the iTunes calls.
+   */
+  public record ItunerReport(
+      Map<String, StorefrontPartitionedCache.PartitionStats> syncStates,
+      Map<String, RegionReport> catalogCache,
+      UpstreamMonitor.Snapshot upstream,
+      LimiterReport limiter) {}
+
+  /**
+   * Snapshot of a catalog cache region.
+   *
+   * @param size The estimated number of entries, if the region is backed by Caffeine.
+   * @param maxEntries The maximum number of entries, if the region is backed by Caffeine.
+   * @param hits The number of lookups that found an entry.
+   * @param misses The number of lookups that found nothing.
+   * @param puts The number of entries written.
+   * @param hitRatio The hit ratio, or null if the region was never read.
+   */
+  public record RegionReport(
+      Long size, Long maxEntries, long hits, long misses, long puts, Double hitRatio) {}
+
+  /**
+   * Snapshot of the concurrency limiter.
+   *
+   * @param limit The current concurrency limit.
+   * @param inFlight The number of requests let through and not yet completed.
+   * @param rejected The number of requests shed so far.
+   * @param retryAfterSeconds The Retry-After a shed request would get right now.
+   */
+  public record LimiterReport(int limit, int inFlight, long rejected, long retryAfterSeconds) {}
+}
@@ -0,0 +1,147 @@
+package com.solo.learning.tdourado.api.controller;
+
+import com.solo.learning.tdourado.api.model.GenreStatsResponse;
+import com.solo.learning.tdourado.api.model.PriceStatsResponse;
+import com.solo.learning.tdourado.stats.CatalogStatistics;
+import com.solo.learning.tdourado.stats.PriceSummary;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for the statistics over the stored albums.
+ *
+ * <p>Answers come from the in-memory {@link CatalogStatistics}, so they cost the same however many
+ * albums are stored and never reach the database or iTunes. Right after startup, while the
+ * statistics are still being filled from the album table, every endpoint answers 503.
+ *
+ * @author tiberiusdourado
+ */
+@Slf4j
+@RestController
+@RequestMapping("/stats")
+@Tag(name = "Catalog statistics", description = "Genre and price statistics of the stored albums")
+public class StatsController {
+
+  // iTunes storefronts are identified by ISO 3166-1 alpha-2 country codes.
+  private static final Pattern COUNTRY_CODE = Pattern.compile("[A-Za-z]{2}");
+
+  // iTunes prices are in ISO 4217 currency codes.
+  private static final Pattern CURRENCY_CODE = Pattern.compile("[A-Za-z]{3}");
+
+  private final CatalogStatistics statistics;
+
+  /**
+   * Constructor for the StatsController.
+   *
+   * @param statistics Statistics of the stored albums
+   */
+  public StatsController(CatalogStatistics statistics) {
+    this.statistics = statistics;
+  }
+
+  /**
+   * Counts the stored albums per genre.
+   *
+   * @return A ResponseEntity with the number of albums per genre.
+   */
+  @Operation(
+      summary = "Get album counts per genre",
+      description = "Counts the stored albums of every storefront per primary genre.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successfully counted the albums",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = GenreStatsResponse.class))),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Statistics still being filled after startup",
+            content = @Content)
+      })
+  @GetMapping("/genres")
+  public ResponseEntity<GenreStatsResponse> genres() {
+    if (!statistics.isReady()) {
+      return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    return new ResponseEntity<>(
+        new GenreStatsResponse(statistics.getAlbums(), statistics.genres()), HttpStatus.OK);
+  }
+
+  /**
+   * Summarizes the prices of the stored albums in a currency.
+   *
+   * @param currency The currency (ISO 4217 code).
+   * @param country The storefront (two-letter country code) to limit the summary to, if any.
+   * @return A ResponseEntity with the price summary.
+   */
+  @Operation(
+      summary = "Get price statistics per currency",
+      description =
+          "Summarizes the prices of the stored albums in a currency, over every storefront "
+              + "or a single one: count, mean, min, max and the 50th, 90th and 99th percentiles.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Successfully summarized the prices",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = PriceStatsResponse.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid currency or country",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "404",
+            description = "No stored album has a price in that currency",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Statistics still being filled after startup",
+            content = @Content)
+      })
+  @GetMapping("/prices")
+  public ResponseEntity<PriceStatsResponse> prices(
+      @Parameter(description = "ISO 4217 currency code", example = "USD", required = true)
+          @RequestParam("currency")
+          final @NotNull String currency,
+      @Parameter(description = "iTunes storefront (two-letter country code)", example = "US")
+          @RequestParam(value = "country", required = false)
+          final String country) {
+    if (!CURRENCY_CODE.matcher(currency).matches()
+        || (country != null && !COUNTRY_CODE.matcher(country).matches())) {
+      log.warn("Rejecting price statistics for currency '{}', country '{}'", currency, country);
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    }
+    if (!statistics.isReady()) {
+      return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    String code = currency.toUpperCase(Locale.ROOT);
+    String storefront = country == null ? null : country.toUpperCase(Locale.ROOT);
+    Optional<PriceSummary> summary = statistics.prices(code, storefront);
+    return summary
+        .map(s -> new ResponseEntity<>(PriceStatsResponse.of(code, storefront, s), HttpStatus.OK))
+        .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+  }
+}
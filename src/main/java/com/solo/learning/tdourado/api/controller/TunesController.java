@@ -2,10 +2,14 @@ package com.solo.learning.tdourado.api.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.solo.learning.tdourado.api.limit.AdaptiveConcurrencyLimiter;
 import com.solo.learning.tdourado.api.model.AlbumResponse;
 import com.solo.learning.tdourado.api.model.ArtistResponse;
+import com.solo.learning.tdourado.api.upstream.UpstreamMonitor;
 import com.solo.learning.tdourado.persistence.domain.Album;
 import com.solo.learning.tdourado.persistence.domain.Artist;
+import com.solo.learning.tdourado.sync.DiscographySyncService;
+import com.solo.learning.tdourado.sync.SyncedDiscography;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,11 +17,15 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -36,6 +44,12 @@ import reactor.core.publisher.Mono;
  * from the iTunes Store API. It uses WebClient for reactive, non-blocking HTTP communication with
  * comprehensive error handling and logging.
  *
+ * <p>Calls to iTunes go through an {@link AdaptiveConcurrencyLimiter}. Requests over the limit are
+ * shed with a 503 and a Retry-After header, except album lookups of discographies that were
+ * already synced, which are served from storage instead. A request holds its permit for the iTunes
+ * call alone: parsing the response and syncing the discography happen after its release, so the
+ * latency driving the limit is the iTunes round trip.
+ *
  * @author tiberiusdourado
  */
 @Slf4j
@@ -46,6 +60,9 @@ import reactor.core.publisher.Mono;
     description = "Endpoints for searching artists and retrieving album information from iTunes")
 public class TunesController {
 
+  // iTunes storefronts are identified by ISO 3166-1 alpha-2 country codes.
+  private static final Pattern COUNTRY_CODE = Pattern.compile("[A-Za-z]{2}");
+
   // Response objects.
   private AlbumResponse albumResponse;
   private ArtistResponse artistResponse;
@@ -53,6 +70,15 @@ public class TunesController {
   // WebClient for reactive HTTP calls
   private final WebClient webClient;
 
+  // Persists fetched discographies incrementally.
+  private final DiscographySyncService discographySyncService;
+
+  // Sheds requests once iTunes stops keeping up.
+  private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+  // Applies the timeout to, and records, every iTunes call.
+  private final UpstreamMonitor upstreamMonitor;
+
   // Jackson ObjectMapper.
   private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -67,8 +93,18 @@ public class TunesController {
    * Constructor that initializes WebClient with timeout configuration.
    *
    * @param webClientBuilder WebClient.Builder provided by Spring
+   * @param discographySyncService Service that persists the fetched discographies
+   * @param concurrencyLimiter Limiter of the concurrent iTunes requests
+   * @param upstreamMonitor Monitor of the iTunes calls, holding their timeout
    */
-  public TunesController(WebClient.Builder webClientBuilder) {
+  public TunesController(
+      WebClient.Builder webClientBuilder,
+      DiscographySyncService discographySyncService,
+      AdaptiveConcurrencyLimiter concurrencyLimiter,
+      UpstreamMonitor upstreamMonitor) {
+    this.discographySyncService = discographySyncService;
+    this.concurrencyLimiter = concurrencyLimiter;
+    this.upstreamMonitor = upstreamMonitor;
     this.webClient =
         webClientBuilder
             .codecs(
@@ -82,41 +118,68 @@ public class TunesController {
    * albums found associated to an artist.
    *
    * @param artistId A valid artist ID in the iTunes store.
+   * @param country The iTunes storefront (two-letter country code) to look the albums up in.
    * @return A ResponseEntity containing the results of the query.
    */
   @Operation(
       summary = "Get albums by artist ID",
       description =
           "Retrieves all albums for a specific artist using their iTunes artist ID. "
-              + "Returns detailed information about the artist and their complete album catalog.")
+              + "Returns detailed information about the artist and their complete album catalog. "
+              + "Served as JSON, CBOR or Smile, depending on the Accept header.")
   @ApiResponses(
       value = {
         @ApiResponse(
             responseCode = "200",
             description = "Successfully retrieved albums",
-            content =
-                @Content(
-                    mediaType = "application/json",
-                    schema = @Schema(implementation = AlbumResponse.class))),
+            content = {
+              @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = AlbumResponse.class)),
+              @Content(
+                  mediaType = "application/cbor",
+                  schema = @Schema(implementation = AlbumResponse.class)),
+              @Content(
+                  mediaType = "application/x-jackson-smile",
+                  schema = @Schema(implementation = AlbumResponse.class))
+            }),
         @ApiResponse(
             responseCode = "400",
-            description = "Invalid artist ID or iTunes API error",
+            description = "Invalid artist ID, invalid country or iTunes API error",
             content = @Content),
         @ApiResponse(
             responseCode = "500",
             description = "Internal server error",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Too many concurrent iTunes requests and no stored discography to serve",
             content = @Content)
       })
   @GetMapping("/{id}/albums")
   public ResponseEntity<AlbumResponse> fetchAlbumsByArtistId(
       @Parameter(description = "iTunes artist ID", example = "909253", required = true)
           @PathVariable("id")
-          final @NotNull String artistId) {
-    log.info("Received request to fetch albums for artist ID: {}", artistId);
+          final @NotNull String artistId,
+      @Parameter(description = "iTunes storefront (two-letter country code)", example = "US")
+          @RequestParam(value = "country", defaultValue = "US")
+          final @NotNull String country) {
+    log.info("Received request to fetch albums for artist ID: {} in {}", artistId, country);
     long startTime = System.currentTimeMillis();
 
+    if (!COUNTRY_CODE.matcher(country).matches()) {
+      log.warn("Rejecting album request for artist ID {}: invalid country '{}'", artistId, country);
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    }
+
+    final String storefront = country.toUpperCase(Locale.ROOT);
+    Optional<AdaptiveConcurrencyLimiter.Permit> permit = concurrencyLimiter.tryAcquire();
+    if (permit.isEmpty()) {
+      return serveSyncedAlbums(artistId, storefront);
+    }
+
     try {
-      albumResponse = fetchAlbumsFromItunes(artistId);
+      albumResponse = fetchAlbumsFromItunes(permit.get(), artistId, storefront);
       long duration = System.currentTimeMillis() - startTime;
       log.info(
           "Successfully fetched {} albums for artist ID {} in {}ms",
@@ -146,42 +209,96 @@ public class TunesController {
           exception.getMessage(),
           exception);
       return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+    } finally {
+      // Already released once iTunes answered; this covers failures before the call.
+      permit.get().release();
+    }
+  }
+
+  /**
+   * Answers an album request that was shed by the concurrency limiter. Discographies that were
+   * already synced are served from storage, as they were on their last sync; anything else gets a
+   * 503 with a Retry-After header.
+   *
+   * @param artistId The requested artist ID.
+   * @param storefront The upper-case iTunes storefront (country code).
+   * @return A ResponseEntity with the stored discography, or a 503 without a body.
+   */
+  private ResponseEntity<AlbumResponse> serveSyncedAlbums(
+      final @NotNull String artistId, final @NotNull String storefront) {
+    Optional<SyncedDiscography> synced = Optional.empty();
+    try {
+      synced = discographySyncService.findSynced(storefront, Integer.parseInt(artistId));
+    } catch (NumberFormatException | DataAccessException exception) {
+      log.debug("No stored discography for artist ID {}: {}", artistId, exception.getMessage());
+    }
+
+    if (synced.isPresent()) {
+      List<Album> albums = synced.get().albums();
+      log.info(
+          "Over the concurrency limit, serving {} stored albums for artist ID {} in {}",
+          albums.size(),
+          artistId,
+          storefront);
+      // iTunes counts the artist as one of the results.
+      return new ResponseEntity<>(
+          new AlbumResponse(albums.size() + 1, synced.get().artist(), albums), HttpStatus.OK);
     }
+    log.warn("Over the concurrency limit, shedding album request for artist ID {}", artistId);
+    return serviceUnavailable();
+  }
+
+  /**
+   * Builds the response of a shed request.
+   *
+   * @param <T> The type of the response body.
+   * @return A 503 ResponseEntity telling the client when to retry.
+   */
+  private <T> ResponseEntity<T> serviceUnavailable() {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(concurrencyLimiter.retryAfterSeconds()))
+        .build();
   }
 
   /**
    * Makes a request to iTunes for all albums associated to an ArtistId using WebClient.
    *
+   * @param permit The limiter Permit of the request, released once iTunes has answered.
    * @param artistId A valid artist ID in the iTunes store.
+   * @param storefront The upper-case iTunes storefront (country code).
    * @return An AlbumResponse object containing an Artist and a list of Albums associated to this
    *     artist.
    * @throws JsonProcessingException If there are any errors processing the JSON response from
    *     iTunes.
    */
-  private AlbumResponse fetchAlbumsFromItunes(final @NotNull String artistId)
+  private AlbumResponse fetchAlbumsFromItunes(
+      final @NotNull AdaptiveConcurrencyLimiter.Permit permit,
+      final @NotNull String artistId,
+      final @NotNull String storefront)
       throws JsonProcessingException {
-    final String fullLookupUrl = String.format(iTunesLookup, artistId);
+    final String fullLookupUrl = String.format(iTunesLookup, artistId, storefront);
     log.debug("Making iTunes API request to: {}", fullLookupUrl);
 
     String jsonQueryResult =
-        webClient
-            .get()
-            .uri(fullLookupUrl)
-            .retrieve()
-            .bodyToMono(String.class)
-            .timeout(Duration.ofSeconds(10))
-            .doOnError(
-                error ->
-                    log.error(
-                        "WebClient error while calling iTunes API for artist ID {}: {}",
-                        artistId,
-                        error.getMessage()))
-            .onErrorResume(
-                error -> {
-                  log.warn("Retrying iTunes API request for artist ID: {}", artistId);
-                  return Mono.error(error);
-                })
-            .block();
+        exchange(
+            permit,
+            webClient
+                .get()
+                .uri(fullLookupUrl)
+                .retrieve()
+                .bodyToMono(String.class)
+                .transform(upstreamMonitor::observe)
+                .doOnError(
+                    error ->
+                        log.error(
+                            "WebClient error while calling iTunes API for artist ID {}: {}",
+                            artistId,
+                            error.getMessage()))
+                .onErrorResume(
+                    error -> {
+                      log.warn("Retrying iTunes API request for artist ID: {}", artistId);
+                      return Mono.error(error);
+                    }));
 
     if (log.isDebugEnabled()) {
       log.debug(
@@ -213,14 +330,72 @@ public class TunesController {
         albumAuthor.getArtistName(),
         artistLessAlbumList.size());
 
+    syncDiscography(storefront, albumAuthor, artistLessAlbumList);
+
     return albumResponse;
   }
 
+  /**
+   * Waits for an iTunes call under a limiter Permit, and releases the Permit as soon as the call
+   * completes, so the latency it records is the iTunes round trip alone. Server errors, timeouts
+   * and transport failures mark the Permit as dropped; client errors do not.
+   *
+   * @param permit The Permit the call was let through with.
+   * @param call The iTunes call, emitting the response body.
+   * @return The response body.
+   */
+  private String exchange(
+      final @NotNull AdaptiveConcurrencyLimiter.Permit permit, final @NotNull Mono<String> call) {
+    try {
+      return call.block();
+    } catch (WebClientResponseException exception) {
+      if (exception.getStatusCode().is5xxServerError()) {
+        permit.markDropped();
+      }
+      throw exception;
+    } catch (RuntimeException exception) {
+      permit.markDropped();
+      throw exception;
+    } finally {
+      permit.release();
+    }
+  }
+
+  /**
+   * Hands a fetched discography over to the sync service, so only new or changed albums get
+   * persisted. Persistence failures are logged and swallowed, as the iTunes response is still
+   * worth returning.
+   *
+   * @param storefront The storefront (country code) the discography was fetched from.
+   * @param artist The artist returned by iTunes.
+   * @param albums The albums returned by iTunes.
+   */
+  private void syncDiscography(
+      final @NotNull String storefront,
+      final @NotNull Artist artist,
+      final @NotNull List<Album> albums) {
+    if (artist.getArtistId() == null) {
+      log.warn("Skipping discography sync, iTunes returned no artist ID");
+      return;
+    }
+
+    try {
+      discographySyncService.sync(storefront, artist, albums);
+    } catch (DataAccessException exception) {
+      log.error(
+          "Failed to sync discography of artist ID {}: {}",
+          artist.getArtistId(),
+          exception.getMessage(),
+          exception);
+    }
+  }
+
   /**
    * Using a name, makes a request to the iTunes API and returns a JSON list of music artists with
    * a similar name.
    *
    * @param artistName The to-be-queried name.
+   * @param country The iTunes storefront (two-letter country code) to search in.
    * @return A ResponseEntity containing the results of the query.
    */
   @Operation(
@@ -228,35 +403,62 @@ public class TunesController {
       description =
           "Searches for music artists in the iTunes Store by name. "
               + "Returns up to 5 matching artists with their basic information. "
-              + "Supports partial name matching and fuzzy search.")
+              + "Supports partial name matching and fuzzy search. "
+              + "Served as JSON, CBOR or Smile, depending on the Accept header.")
   @ApiResponses(
       value = {
         @ApiResponse(
             responseCode = "200",
             description = "Successfully retrieved matching artists",
-            content =
-                @Content(
-                    mediaType = "application/json",
-                    schema = @Schema(implementation = ArtistResponse.class))),
+            content = {
+              @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = ArtistResponse.class)),
+              @Content(
+                  mediaType = "application/cbor",
+                  schema = @Schema(implementation = ArtistResponse.class)),
+              @Content(
+                  mediaType = "application/x-jackson-smile",
+                  schema = @Schema(implementation = ArtistResponse.class))
+            }),
         @ApiResponse(
             responseCode = "400",
-            description = "Invalid search term or iTunes API error",
+            description = "Invalid search term, invalid country or iTunes API error",
             content = @Content),
         @ApiResponse(
             responseCode = "500",
             description = "Internal server error",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Too many concurrent iTunes requests, retry after the given delay",
             content = @Content)
       })
   @GetMapping
   public ResponseEntity<ArtistResponse> fetchArtistsByName(
       @Parameter(description = "Artist name to search for", example = "Taylor Swift", required = true)
           @RequestParam("term")
-          final @NotNull String artistName) {
-    log.info("Received request to search for artists with name: '{}'", artistName);
+          final @NotNull String artistName,
+      @Parameter(description = "iTunes storefront (two-letter country code)", example = "US")
+          @RequestParam(value = "country", defaultValue = "US")
+          final @NotNull String country) {
+    log.info("Received request to search for artists with name: '{}' in {}", artistName, country);
     long startTime = System.currentTimeMillis();
 
+    if (!COUNTRY_CODE.matcher(country).matches()) {
+      log.warn("Rejecting search for artist '{}': invalid country '{}'", artistName, country);
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    }
+
+    Optional<AdaptiveConcurrencyLimiter.Permit> permit = concurrencyLimiter.tryAcquire();
+    if (permit.isEmpty()) {
+      log.warn("Over the concurrency limit, shedding search for artist '{}'", artistName);
+      return serviceUnavailable();
+    }
+
     try {
-      artistResponse = fetchArtistsFromItunes(artistName);
+      artistResponse =
+          fetchArtistsFromItunes(permit.get(), artistName, country.toUpperCase(Locale.ROOT));
       long duration = System.currentTimeMillis() - startTime;
       log.info(
           "Successfully found {} artists matching '{}' in {}ms",
@@ -286,6 +488,9 @@ public class TunesController {
           exception.getMessage(),
           exception);
       return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+    } finally {
+      // Already released once iTunes answered; this covers failures before the call.
+      permit.get().release();
     }
   }
 
@@ -293,34 +498,38 @@ public class TunesController {
    * Makes a request to iTunes for all artists with a name that closely match the provided
    * artistName using WebClient.
    *
+   * @param permit The limiter Permit of the request, released once iTunes has answered.
    * @param artistName The to-be-queried name.
+   * @param storefront The upper-case iTunes storefront (country code).
    * @return An ArtistResponse object containing a list of Artists from iTunes.
    * @throws JsonProcessingException If there are any errors processing the response from iTunes.
    */
-  private ArtistResponse fetchArtistsFromItunes(String artistName)
+  private ArtistResponse fetchArtistsFromItunes(
+      AdaptiveConcurrencyLimiter.Permit permit, String artistName, String storefront)
       throws JsonProcessingException {
-    final String fullSearchUrl = String.format(iTunesSearch, artistName);
+    final String fullSearchUrl = String.format(iTunesSearch, artistName, storefront);
     log.debug("Making iTunes API search request to: {}", fullSearchUrl);
 
     String jsonQueryResult =
-        webClient
-            .get()
-            .uri(fullSearchUrl)
-            .retrieve()
-            .bodyToMono(String.class)
-            .timeout(Duration.ofSeconds(10))
-            .doOnError(
-                error ->
-                    log.error(
-                        "WebClient error while searching for artist '{}': {}",
-                        artistName,
-                        error.getMessage()))
-            .onErrorResume(
-                error -> {
-                  log.warn("Retrying iTunes API search for artist: '{}'", artistName);
-                  return Mono.error(error);
-                })
-            .block();
+        exchange(
+            permit,
+            webClient
+                .get()
+                .uri(fullSearchUrl)
+                .retrieve()
+                .bodyToMono(String.class)
+                .transform(upstreamMonitor::observe)
+                .doOnError(
+                    error ->
+                        log.error(
+                            "WebClient error while searching for artist '{}': {}",
+                            artistName,
+                            error.getMessage()))
+                .onErrorResume(
+                    error -> {
+                      log.warn("Retrying iTunes API search for artist: '{}'", artistName);
+                      return Mono.error(error);
+                    }));
 
     if (log.isDebugEnabled()) {
       log.debug(
@@ -0,0 +1,192 @@
+package com.solo.learning.tdourado.api.limit;
+
+import com.solo.learning.tdourado.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Concurrency limiter whose limit follows the latency observed on the requests it lets through.
+ *
+ * <p>The limit moves along a latency gradient: every completed request compares its latency with
+ * the long-term average, and the limit grows while latency stays within tolerance and shrinks as
+ * soon as requests queue up upstream. Failed or timed-out requests cut the limit by a fixed ratio
+ * (the multiplicative decrease of AIMD). Requests above the limit are rejected right away instead
+ * of queueing, so the latency of the accepted ones stays bounded.
+ *
+ * <p>In-flight requests, the current limit and the rejected requests are exported as {@code
+ * ituner.limiter.inflight}, {@code ituner.limiter.limit} and {@code ituner.limiter.rejected}.
+ *
+ * @author tiberiusdourado
+ */
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+  private final ConcurrencyLimitProperties properties;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final LongAdder rejected = new LongAdder();
+
+  // Written under the lock in update(), read without it on the request path.
+  private volatile int limit;
+  private volatile double longRttNanos;
+
+  // Guarded by this.
+  private double estimatedLimit;
+  private long samples;
+
+  /**
+   * Constructor for the AdaptiveConcurrencyLimiter.
+   *
+   * @param properties The limiter settings.
+   */
+  public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+    this.properties = properties;
+    this.estimatedLimit = properties.getInitialLimit();
+    this.limit = properties.getInitialLimit();
+  }
+
+  /**
+   * Tries to let a request through.
+   *
+   * @return A Permit that must be released once the request completes, or nothing if the
+   *     request is over the limit and should be shed.
+   */
+  public Optional<Permit> tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= limit) {
+        rejected.increment();
+        return Optional.empty();
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return Optional.of(new Permit(current + 1));
+      }
+    }
+  }
+
+  /**
+   * Computes how long a shed client should wait before retrying: the time the requests in flight
+   * take to drain at the observed latency.
+   *
+   * @return The Retry-After delay in seconds, at least 1.
+   */
+  public long retryAfterSeconds() {
+    double drainNanos = longRttNanos * Math.max(1, inFlight.get()) / Math.max(1, limit);
+    long seconds = (long) Math.ceil(drainNanos / TimeUnit.SECONDS.toNanos(1));
+    return Math.clamp(seconds, 1L, Math.max(1L, properties.getMaxRetryAfter().toSeconds()));
+  }
+
+  /**
+   * Gets the current concurrency limit.
+   *
+   * @return The number of requests allowed in flight.
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * Gets the number of requests currently in flight.
+   *
+   * @return The number of acquired and not yet released Permits.
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * Gets the number of requests rejected so far.
+   *
+   * @return The total of shed requests.
+   */
+  public long getRejected() {
+    return rejected.sum();
+  }
+
+  @Override
+  public void bindTo(final @NotNull MeterRegistry registry) {
+    Gauge.builder("ituner.limiter.inflight", inFlight, AtomicInteger::get)
+        .description("iTunes requests currently in flight")
+        .register(registry);
+    Gauge.builder("ituner.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+        .description("Current adaptive concurrency limit of the iTunes requests")
+        .register(registry);
+    FunctionCounter.builder("ituner.limiter.rejected", rejected, LongAdder::sum)
+        .description("Requests shed for being over the concurrency limit")
+        .register(registry);
+  }
+
+  /**
+   * Feeds the outcome of a completed request into the limit.
+   *
+   * @param rttNanos The latency of the request.
+   * @param inFlightAtStart The number of requests in flight when it was let through.
+   * @param dropped Whether the request failed or timed out upstream.
+   */
+  synchronized void update(long rttNanos, int inFlightAtStart, boolean dropped) {
+    if (dropped) {
+      estimatedLimit =
+          Math.max(properties.getMinLimit(), estimatedLimit * properties.getBackoffRatio());
+      limit = (int) estimatedLimit;
+      return;
+    }
+
+    double rtt = Math.max(1, rttNanos);
+    samples++;
+    double longRtt =
+        samples == 1
+            ? rtt
+            : longRttNanos + (rtt - longRttNanos) / Math.min(samples, properties.getRttWindow());
+    // Once latency has recovered from a spike, let the long-term average catch up faster.
+    if (longRtt / rtt > 2) {
+      longRtt *= 0.95;
+    }
+    longRttNanos = longRtt;
+
+    // Too little traffic to tell anything about the upstream capacity.
+    if (inFlightAtStart < estimatedLimit / 2) {
+      return;
+    }
+
+    double gradient = Math.clamp(properties.getRttTolerance() * longRtt / rtt, 0.5, 1.0);
+    double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+    estimatedLimit =
+        Math.clamp(
+            estimatedLimit * (1 - properties.getSmoothing()) + newLimit * properties.getSmoothing(),
+            properties.getMinLimit(),
+            properties.getMaxLimit());
+    limit = (int) estimatedLimit;
+  }
+
+  /** A request let through by the limiter. Must be released exactly once. */
+  public final class Permit {
+    private final long startNanos = System.nanoTime();
+    private final int inFlightAtStart;
+    private boolean dropped;
+    private boolean released;
+
+    private Permit(int inFlightAtStart) {
+      this.inFlightAtStart = inFlightAtStart;
+    }
+
+    /** Marks the request as failed upstream, so releasing it shrinks the limit. */
+    public void markDropped() {
+      dropped = true;
+    }
+
+    /** Releases the Permit, feeding the request's latency into the limit. */
+    public void release() {
+      if (released) {
+        return;
+      }
+      released = true;
+      inFlight.decrementAndGet();
+      update(System.nanoTime() - startNanos, inFlightAtStart, dropped);
+    }
+  }
+}
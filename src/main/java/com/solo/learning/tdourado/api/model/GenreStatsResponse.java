@@ -0,0 +1,19 @@
+package com.solo.learning.tdourado.api.model;
+
+import com.solo.learning.tdourado.stats.CatalogStatistics.GenreCount;
+import java.util.List;
+
+/**
+ * Model for the genre statistics of the stored albums.
+ *
+ * @param albums The number of stored albums, over every storefront.
+ * @param genres The number of stored albums per genre, the largest first.
+ * @author tiberiusdourado
+ */
+public record GenreStatsResponse(long albums, List<GenreCount> genres) {
+
+  /** Copies the genres to avoid exposing internal representation. */
+  public GenreStatsResponse {
+    genres = List.copyOf(genres);
+  }
+}
@@ -0,0 +1,55 @@
+package com.solo.learning.tdourado.api.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.solo.learning.tdourado.stats.PriceSummary;
+
+/**
+ * Model for the price statistics of the stored albums in one currency.
+ *
+ * <p>The minimum, maximum and percentiles are estimates within 1% of the exact value; the count and
+ * mean are exact.
+ *
+ * @param currency The currency (ISO 4217 code) of the prices.
+ * @param country The storefront the prices were limited to, or null for every storefront.
+ * @param count The number of stored albums with a price in that currency.
+ * @param mean The mean price.
+ * @param min The lowest price.
+ * @param max The highest price.
+ * @param p50 The median price.
+ * @param p90 The 90th percentile of the prices.
+ * @param p99 The 99th percentile of the prices.
+ * @author tiberiusdourado
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PriceStatsResponse(
+    String currency,
+    String country,
+    long count,
+    double mean,
+    double min,
+    double max,
+    double p50,
+    double p90,
+    double p99) {
+
+  /**
+   * Builds the response from a non-empty price summary.
+   *
+   * @param currency The currency (ISO 4217 code) of the prices.
+   * @param country The storefront the prices were limited to, or null for every storefront.
+   * @param summary The summary of the prices.
+   * @return The response.
+   */
+  public static PriceStatsResponse of(String currency, String country, PriceSummary summary) {
+    return new PriceStatsResponse(
+        currency,
+        country,
+        summary.getCount(),
+        summary.getMean(),
+        summary.getMin(),
+        summary.getMax(),
+        summary.quantile(0.5),
+        summary.quantile(0.9),
+        summary.quantile(0.99));
+  }
+}
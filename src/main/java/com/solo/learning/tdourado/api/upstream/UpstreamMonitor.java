@@ -0,0 +1,154 @@
+package com.solo.learning.tdourado.api.upstream;
+
+import com.solo.learning.tdourado.config.UpstreamProperties;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Mono;
+
+/**
+ * Watches the calls to the iTunes API: how many are in flight, how they ended and how long the
+ * most recent ones took. It also owns their timeout, which can be changed while the application
+ * runs.
+ *
+ * <p>Latencies are kept in a fixed-size ring buffer, so recording one never allocates and the
+ * percentiles always describe the latest calls rather than the whole uptime.
+ *
+ * @author tiberiusdourado
+ */
+public class UpstreamMonitor {
+
+  private final AtomicLongArray latencies;
+  private final AtomicLong recorded = new AtomicLong();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final LongAdder succeeded = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder timedOut = new LongAdder();
+
+  private volatile Duration timeout;
+
+  /**
+   * Constructor for the UpstreamMonitor.
+   *
+   * @param properties The upstream settings.
+   */
+  public UpstreamMonitor(UpstreamProperties properties) {
+    this.latencies = new AtomicLongArray(Math.max(1, properties.getLatencySamples()));
+    this.timeout = properties.getTimeout();
+  }
+
+  /**
+   * Applies the current timeout to an iTunes call and records its outcome and latency once it
+   * completes. Cancelled calls only count while in flight.
+   *
+   * @param call The iTunes call, not yet subscribed.
+   * @param <T> The type of the response.
+   * @return The observed call.
+   */
+  public <T> Mono<T> observe(final @NotNull Mono<T> call) {
+    return Mono.defer(
+        () -> {
+          long startNanos = System.nanoTime();
+          inFlight.incrementAndGet();
+          return call.timeout(timeout)
+              .doOnSuccess(result -> record(System.nanoTime() - startNanos, succeeded))
+              .doOnError(
+                  error ->
+                      record(
+                          System.nanoTime() - startNanos,
+                          error instanceof TimeoutException ? timedOut : failed))
+              .doFinally(signal -> inFlight.decrementAndGet());
+        });
+  }
+
+  /**
+   * Gets the timeout applied to the iTunes calls.
+   *
+   * @return The current timeout.
+   */
+  public Duration getTimeout() {
+    return timeout;
+  }
+
+  /**
+   * Changes the timeout of the iTunes calls started from now on.
+   *
+   * @param timeout The new timeout, must be positive.
+   */
+  public void setTimeout(final @NotNull Duration timeout) {
+    if (timeout.isNegative() || timeout.isZero()) {
+      throw new IllegalArgumentException("Timeout must be positive, was " + timeout);
+    }
+    this.timeout = timeout;
+  }
+
+  /**
+   * Takes a snapshot of the iTunes calls.
+   *
+   * @return The in-flight count, the outcome totals and the percentiles of the recent latencies.
+   */
+  public Snapshot snapshot() {
+    int count = (int) Math.min(recorded.get(), latencies.length());
+    long[] sorted = new long[count];
+    for (int i = 0; i < count; i++) {
+      sorted[i] = latencies.get(i);
+    }
+    Arrays.sort(sorted);
+    return new Snapshot(
+        inFlight.get(),
+        succeeded.sum(),
+        failed.sum(),
+        timedOut.sum(),
+        timeout,
+        count,
+        percentile(sorted, 0.50),
+        percentile(sorted, 0.90),
+        percentile(sorted, 0.99),
+        count == 0 ? null : Duration.ofNanos(sorted[count - 1]));
+  }
+
+  private void record(long latencyNanos, LongAdder outcome) {
+    outcome.increment();
+    latencies.set((int) (recorded.getAndIncrement() % latencies.length()), latencyNanos);
+  }
+
+  /** Nearest-rank percentile of sorted samples, or null if there are none. */
+  private static Duration percentile(long[] sorted, double quantile) {
+    if (sorted.length == 0) {
+      return null;
+    }
+    int rank = (int) Math.ceil(quantile * sorted.length);
+    return Duration.ofNanos(sorted[Math.max(0, rank - 1)]);
+  }
+
+  /**
+   * Snapshot of the iTunes calls.
+   *
+   * @param inFlight The number of calls waiting for iTunes.
+   * @param succeeded The number of calls that returned a response.
+   * @param failed The number of calls that failed.
+   * @param timedOut The number of calls that timed out.
+   * @param timeout The timeout currently applied.
+   * @param samples The number of recent calls the percentiles cover.
+   * @param p50 The median latency of the recent calls.
+   * @param p90 The 90th percentile latency of the recent calls.
+   * @param p99 The 99th percentile latency of the recent calls.
+   * @param max The highest latency of the recent calls.
+   */
+  public record Snapshot(
+      int inFlight,
+      long succeeded,
+      long failed,
+      long timedOut,
+      Duration timeout,
+      int samples,
+      Duration p50,
+      Duration p90,
+      Duration p99,
+      Duration max) {}
+}
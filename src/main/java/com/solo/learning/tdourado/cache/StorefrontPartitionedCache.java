@@ -0,0 +1,220 @@
+package com.solo.learning.tdourado.cache;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToIntFunction;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * In-memory cache keyed by iTunes ID, split into one LRU partition per storefront (country).
+ *
+ * <p>Each partition has its own capacity, so a large storefront evicting its least recently used
+ * entries never pushes another storefront's hot entries out. Partitions are locked one at a time,
+ * so traffic to one storefront never waits on another.
+ *
+ * <p>Capacities are counted in weight units. Every entry weighs 1 unless a weigher is given, so
+ * entries of very different sizes, such as discographies, can be bounded by what they hold rather
+ * than by how many there are.
+ *
+ * <p>Partitions can be resized and cleared at runtime. A resized partition keeps its capacity
+ * until it is cleared; partitions created afterwards are sized by the capacity function again.
+ *
+ * @param <V> The type of the cached values.
+ * @author tiberiusdourado
+ */
+public class StorefrontPartitionedCache<V> {
+
+  private final ToIntFunction<String> capacityOf;
+  private final ToIntFunction<? super V> weigher;
+  private final ConcurrentMap<String, Partition<V>> partitions = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor for the StorefrontPartitionedCache.
+   *
+   * @param capacityOf Gives the maximum number of entries of a storefront's partition.
+   */
+  public StorefrontPartitionedCache(ToIntFunction<String> capacityOf) {
+    this(capacityOf, value -> 1);
+  }
+
+  /**
+   * Constructor for the StorefrontPartitionedCache, with weighted entries.
+   *
+   * @param capacityOf Gives the maximum total weight of a storefront's partition.
+   * @param weigher Gives the weight of a value, at least 1. Values must not change weight while
+   *     cached.
+   */
+  public StorefrontPartitionedCache(
+      ToIntFunction<String> capacityOf, ToIntFunction<? super V> weigher) {
+    this.capacityOf = capacityOf;
+    this.weigher = weigher;
+  }
+
+  /**
+   * Gets a cached value, marking it as recently used.
+   *
+   * @param storefront The storefront (country code) of the entry.
+   * @param key The iTunes ID of the entry.
+   * @return The cached value, or null if there is none.
+   */
+  public V get(final @NotNull String storefront, int key) {
+    Partition<V> partition = partitions.get(storefront);
+    if (partition == null) {
+      return null;
+    }
+    synchronized (partition) {
+      V value = partition.get(key);
+      if (value == null) {
+        partition.misses++;
+      } else {
+        partition.hits++;
+      }
+      return value;
+    }
+  }
+
+  /**
+   * Caches a value, evicting the storefront's least recently used entries if it is full. A value
+   * weighing more than the whole partition is not cached, and drops the value it would replace.
+   *
+   * @param storefront The storefront (country code) of the entry.
+   * @param key The iTunes ID of the entry.
+   * @param value The value to cache.
+   */
+  public void put(final @NotNull String storefront, int key, final @NotNull V value) {
+    Partition<V> partition =
+        partitions.computeIfAbsent(
+            storefront, country -> new Partition<>(capacityOf.applyAsInt(country), weigher));
+    synchronized (partition) {
+      partition.store(key, value);
+    }
+  }
+
+  /**
+   * Gets the number of entries cached for a storefront.
+   *
+   * @param storefront The storefront (country code).
+   * @return The size of the storefront's partition.
+   */
+  public int size(final @NotNull String storefront) {
+    Partition<V> partition = partitions.get(storefront);
+    if (partition == null) {
+      return 0;
+    }
+    synchronized (partition) {
+      return partition.size();
+    }
+  }
+
+  /**
+   * Changes the capacity of a storefront's partition, evicting its least recently used entries if
+   * it now holds too many.
+   *
+   * @param storefront The storefront (country code).
+   * @param capacity The new maximum total weight, at least 1.
+   */
+  public void resize(final @NotNull String storefront, int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be at least 1, was " + capacity);
+    }
+    Partition<V> partition =
+        partitions.computeIfAbsent(storefront, country -> new Partition<>(capacity, weigher));
+    synchronized (partition) {
+      partition.capacity = capacity;
+      partition.trim();
+    }
+  }
+
+  /**
+   * Drops every entry of a storefront, along with its partition's capacity and statistics.
+   *
+   * @param storefront The storefront (country code).
+   */
+  public void clear(final @NotNull String storefront) {
+    partitions.remove(storefront);
+  }
+
+  /** Drops every entry of every storefront. */
+  public void clear() {
+    partitions.clear();
+  }
+
+  /**
+   * Takes a snapshot of every partition. Lookups in storefronts without a partition are not
+   * counted.
+   *
+   * @param recentKeys How many of the most recently used keys to list per partition.
+   * @return The statistics of each partition, ordered by storefront.
+   */
+  public Map<String, PartitionStats> stats(int recentKeys) {
+    Map<String, PartitionStats> stats = new TreeMap<>();
+    partitions.forEach(
+        (storefront, partition) -> {
+          synchronized (partition) {
+            stats.put(
+                storefront,
+                new PartitionStats(
+                    partition.size(),
+                    partition.weight,
+                    partition.capacity,
+                    partition.hits,
+                    partition.misses,
+                    partition.sequencedKeySet().reversed().stream().limit(recentKeys).toList()));
+          }
+        });
+    return stats;
+  }
+
+  /**
+   * Snapshot of a single storefront's partition.
+   *
+   * @param size The number of cached entries.
+   * @param weight The total weight of the cached entries.
+   * @param capacity The maximum total weight.
+   * @param hits The number of lookups that found an entry.
+   * @param misses The number of lookups that found nothing.
+   * @param recentKeys The most recently used keys, most recent first.
+   */
+  public record PartitionStats(
+      int size, long weight, int capacity, long hits, long misses, List<Integer> recentKeys) {}
+
+  /** LRU map holding a single storefront's entries. Every field is guarded by the map itself. */
+  private static final class Partition<V> extends LinkedHashMap<Integer, V> {
+    private static final long serialVersionUID = 1L;
+
+    private final transient ToIntFunction<? super V> weigher;
+    private int capacity;
+    private long weight;
+    private long hits;
+    private long misses;
+
+    Partition(int capacity, ToIntFunction<? super V> weigher) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+      this.weigher = weigher;
+    }
+
+    void store(int key, V value) {
+      V previous = remove(key);
+      if (previous != null) {
+        weight -= weigher.applyAsInt(previous);
+      }
+      int valueWeight = weigher.applyAsInt(value);
+      if (valueWeight <= capacity) {
+        put(key, value);
+        weight += valueWeight;
+        trim();
+      }
+    }
+
+    void trim() {
+      while (weight > capacity) {
+        weight -= weigher.applyAsInt(pollFirstEntry().getValue());
+      }
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package com.solo.learning.tdourado.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Append-only dictionary encoding strings to small integer codes, shared by every cached
+ * discography.
+ *
+ * <p>Meant for low-cardinality values such as currencies and genres: each distinct value is stored
+ * once, and cached rows keep a two-byte code instead of their own String. Codes are never
+ * reclaimed, so the dictionary is capped; high-cardinality values do not belong here.
+ *
+ * <p>Encoding a known value and decoding are lock-free; only new values take the lock.
+ *
+ * @author tiberiusdourado
+ */
+public final class StringDictionary {
+  /** Code of a null value. */
+  public static final short NULL_CODE = -1;
+
+  /** Maximum number of distinct values, so every code fits in a short. */
+  public static final int MAX_SIZE = Short.MAX_VALUE;
+
+  private final ConcurrentMap<String, Short> codes = new ConcurrentHashMap<>();
+
+  // Written under the lock, read without it. Slots below size never change once published.
+  private volatile String[] values = new String[64];
+  private int size;
+
+  /**
+   * Gets the code of a value, adding it to the dictionary if it is new.
+   *
+   * @param value The value to encode, possibly null.
+   * @return The value's code, or {@link #NULL_CODE} for null.
+   * @throws IllegalStateException If the value is new and the dictionary is full.
+   */
+  public short encode(String value) {
+    if (value == null) {
+      return NULL_CODE;
+    }
+    Short code = codes.get(value);
+    return code != null ? code : add(value);
+  }
+
+  /**
+   * Gets the code of a value without adding it, e.g. to look up a value taken from a request.
+   *
+   * @param value The value to look up, possibly null.
+   * @return The value's code, or {@link #NULL_CODE} for null or a value never encoded.
+   */
+  public short lookup(String value) {
+    Short code = value == null ? null : codes.get(value);
+    return code != null ? code : NULL_CODE;
+  }
+
+  /**
+   * Gets the value of a code.
+   *
+   * @param code A code returned by {@link #encode(String)}.
+   * @return The encoded value, or null for {@link #NULL_CODE}.
+   */
+  public String decode(short code) {
+    return code == NULL_CODE ? null : values[code];
+  }
+
+  /**
+   * Gets the number of distinct values encoded so far.
+   *
+   * @return The size of the dictionary.
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  private synchronized short add(String value) {
+    Short code = codes.get(value);
+    if (code != null) {
+      return code;
+    }
+    if (size == MAX_SIZE) {
+      throw new IllegalStateException("String dictionary is full (" + MAX_SIZE + " values)");
+    }
+
+    String[] current = size < values.length ? values : Arrays.copyOf(values, size * 2);
+    current[size] = value;
+    // Publish the value before its code, so a code is never decoded before its value is visible.
+    values = current;
+    short newCode = (short) size++;
+    codes.put(value, newCode);
+    return newCode;
+  }
+}
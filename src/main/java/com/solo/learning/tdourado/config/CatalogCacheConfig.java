@@ -0,0 +1,105 @@
+package com.solo.learning.tdourado.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.Duration;
+import javax.cache.spi.CachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the JCache CacheManager backing Hibernate's second-level and query caches.
+ *
+ * <p>The regions listed under {@code ituner.cache.regions} are created up front with their own
+ * TTL and, when the provider is Caffeine, their own size limit. Any other region Hibernate needs
+ * (e.g. the update timestamps region, which must never expire) is created on demand with the
+ * provider's defaults.
+ *
+ * <p>Regions are shared by every storefront. Unlike the sync states, they are not partitioned:
+ * entity keys are row IDs and query keys are parameter bindings, so neither names its storefront.
+ *
+ * @author tiberiusdourado
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(CatalogCacheProperties.class)
+public class CatalogCacheConfig {
+
+  /**
+   * Provides the JCache CacheManager with the configured catalog regions.
+   *
+   * @param properties The catalog cache settings.
+   * @return A CacheManager from the configured CachingProvider
+   */
+  @Bean(destroyMethod = "close")
+  public CacheManager catalogCacheManager(CatalogCacheProperties properties) {
+    CachingProvider provider =
+        properties.getProvider() == null
+            ? Caching.getCachingProvider()
+            : Caching.getCachingProvider(properties.getProvider());
+    CacheManager cacheManager = provider.getCacheManager();
+
+    properties
+        .getRegions()
+        .forEach(
+            (name, region) -> {
+              if (cacheManager.getCache(name) == null) {
+                cacheManager.createCache(name, regionConfiguration(provider, region));
+              }
+              log.info(
+                  "Catalog cache region '{}': max-entries={}, ttl={}",
+                  name,
+                  region.getMaxEntries(),
+                  region.getTtl());
+            });
+    return cacheManager;
+  }
+
+  /**
+   * Hands the catalog CacheManager over to Hibernate's JCache region factory.
+   *
+   * @param catalogCacheManager The CacheManager holding the catalog regions.
+   * @return A customizer adding the CacheManager to the Hibernate properties
+   */
+  @Bean
+  public HibernatePropertiesCustomizer catalogCacheHibernatePropertiesCustomizer(
+      CacheManager catalogCacheManager) {
+    return hibernateProperties -> {
+      hibernateProperties.put(ConfigSettings.CACHE_MANAGER, catalogCacheManager);
+      hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create");
+    };
+  }
+
+  private static javax.cache.configuration.Configuration<Object, Object> regionConfiguration(
+      CachingProvider provider, CatalogCacheProperties.Region region) {
+    MutableConfiguration<Object, Object> configuration =
+        new MutableConfiguration<>()
+            .setStatisticsEnabled(true)
+            .setExpiryPolicyFactory(
+                CreatedExpiryPolicy.factoryOf(
+                    new Duration(TimeUnit.MILLISECONDS, region.getTtl().toMillis())));
+
+    // JSR-107 has no notion of a size limit, so that part is provider specific.
+    if (provider instanceof CaffeineCachingProvider) {
+      CaffeineConfiguration<Object, Object> caffeineConfiguration =
+          new CaffeineConfiguration<>(configuration);
+      caffeineConfiguration.setMaximumSize(OptionalLong.of(region.getMaxEntries()));
+      return caffeineConfiguration;
+    }
+
+    log.warn(
+        "CachingProvider {} is not Caffeine, max-entries is not applied",
+        provider.getClass().getName());
+    return configuration;
+  }
+}
@@ -0,0 +1,36 @@
+package com.solo.learning.tdourado.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the Hibernate second-level and query cache regions of the catalog, bound from
+ * {@code ituner.cache}.
+ *
+ * @author tiberiusdourado
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ituner.cache")
+public class CatalogCacheProperties {
+  /** JCache CachingProvider class name. The only provider on the classpath is used if unset. */
+  private String provider;
+
+  /** Cache regions to create up front, by region name. */
+  private Map<String, Region> regions = new LinkedHashMap<>();
+
+  /** Size and expiry of a single cache region. */
+  @Getter
+  @Setter
+  public static class Region {
+    /** Maximum number of entries kept in the region. */
+    private long maxEntries = 10_000;
+
+    /** Time an entry lives after being cached. */
+    private Duration ttl = Duration.ofMinutes(10);
+  }
+}
@@ -0,0 +1,66 @@
+package com.solo.learning.tdourado.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
+import org.springframework.data.rest.webmvc.config.RepositoryRestConfigurer;
+import org.springframework.data.web.HateoasPageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.SlicedResourcesAssembler;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.SlicedModel;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * Configuration of the Spring Data REST catalog under {@code /catalog}.
+ *
+ * <p>The catalog is read-only: albums and artists are only written by the discography sync, which
+ * keeps the sync state, the change events and the unique collection IDs per storefront in line.
+ * Creating, replacing, patching and deleting through the REST resources are answered with a 405.
+ *
+ * <p>The keyset searches return Slices. Spring Data REST renders an empty Slice without any link,
+ * which the SlicedResourcesAssembler of Spring Data Commons 4.0 rejects, so a search past the last
+ * entry would fail with a 500. The assembler below links an empty Slice to the current request.
+ *
+ * @author tiberiusdourado
+ */
+@Configuration
+public class CatalogRestConfig implements RepositoryRestConfigurer {
+
+  @Override
+  public void configureRepositoryRestConfiguration(
+      final @NotNull RepositoryRestConfiguration config, final @NotNull CorsRegistry cors) {
+    config
+        .getExposureConfiguration()
+        .disablePutForCreation()
+        .withItemExposure(
+            (metadata, httpMethods) ->
+                httpMethods.disable(HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE))
+        .withCollectionExposure(
+            (metadata, httpMethods) -> httpMethods.disable(HttpMethod.POST));
+  }
+
+  /**
+   * SlicedResourcesAssembler for the catalog searches that also renders an empty Slice.
+   *
+   * @param pageableResolver The resolver of the Pageable parameters, to build the paging links.
+   * @return The SlicedResourcesAssembler used in place of the Spring Data one.
+   */
+  @Bean
+  @Primary
+  public SlicedResourcesAssembler<Object> catalogSlicedResourcesAssembler(
+      final HateoasPageableHandlerMethodArgumentResolver pageableResolver) {
+    return new SlicedResourcesAssembler<>(pageableResolver, null) {
+      @Override
+      public @NotNull SlicedModel<?> toEmptyModel(
+          final @NotNull Slice<?> slice, final @NotNull Class<?> type) {
+        Link self = Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString());
+        return toEmptyModel(slice, type, self);
+      }
+    };
+  }
+}
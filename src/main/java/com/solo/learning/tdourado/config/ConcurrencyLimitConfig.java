@@ -0,0 +1,28 @@
+package com.solo.learning.tdourado.config;
+
+import com.solo.learning.tdourado.api.limit.AdaptiveConcurrencyLimiter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the adaptive concurrency limit at the controller edge.
+ *
+ * @author tiberiusdourado
+ */
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig {
+
+  /**
+   * Provides the concurrency limiter shared by every endpoint calling iTunes.
+   *
+   * @param properties The limiter settings.
+   * @return An AdaptiveConcurrencyLimiter configured by {@code ituner.limiter}
+   */
+  @Bean
+  public AdaptiveConcurrencyLimiter itunesConcurrencyLimiter(
+      ConcurrencyLimitProperties properties) {
+    return new AdaptiveConcurrencyLimiter(properties);
+  }
+}
@@ -0,0 +1,41 @@
+package com.solo.learning.tdourado.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the adaptive concurrency limit in front of the iTunes calls, bound from {@code
+ * ituner.limiter}.
+ *
+ * @author tiberiusdourado
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ituner.limiter")
+public class ConcurrencyLimitProperties {
+  /** Concurrency limit before any latency has been observed. */
+  private int initialLimit = 20;
+
+  /** Lowest the limit can go. */
+  private int minLimit = 4;
+
+  /** Highest the limit can go. */
+  private int maxLimit = 200;
+
+  /** Weight of every new limit estimate, between 0 and 1. */
+  private double smoothing = 0.2;
+
+  /** How much slower than the long-term latency a request can be before the limit shrinks. */
+  private double rttTolerance = 1.5;
+
+  /** Number of samples the long-term latency average is computed over. */
+  private int rttWindow = 600;
+
+  /** Factor the limit is multiplied by when an upstream call times out or fails. */
+  private double backoffRatio = 0.9;
+
+  /** Upper bound of the Retry-After sent with shed requests. */
+  private Duration maxRetryAfter = Duration.ofSeconds(30);
+}
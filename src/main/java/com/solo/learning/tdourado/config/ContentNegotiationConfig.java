@@ -0,0 +1,98 @@
+package com.solo.learning.tdourado.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import tools.jackson.databind.DeserializationConfig;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.JacksonModule;
+import tools.jackson.databind.MapperFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationConfig;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.cfg.MapperBuilder;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Configuration of the binary formats the API responses can be served in, next to JSON.
+ *
+ * <p>Clients pick the format through the Accept header:
+ *
+ * <ul>
+ *   <li>{@code application/json} (default): compact, non-indented JSON
+ *   <li>{@code application/cbor}: CBOR (RFC 8949)
+ *   <li>{@code application/x-jackson-smile}: Smile, Jackson's binary JSON
+ * </ul>
+ *
+ * <p>The binary formats are meant for internal service-to-service consumers, which save both
+ * payload size and encoding time on every call.
+ *
+ * <p>Their mappers are configured like the application's JSON mapper, so {@code spring.jackson}
+ * settings and the registered modules apply to every format alike.
+ *
+ * @author tiberiusdourado
+ */
+@Configuration
+public class ContentNegotiationConfig {
+
+  /**
+   * Provides the converter writing and reading {@code application/cbor}.
+   *
+   * @param jsonMapper The application's JSON mapper, configured by {@code spring.jackson}.
+   * @param modules The Jackson modules of the application context.
+   * @return A CBOR HttpMessageConverter
+   */
+  @Bean
+  public JacksonCborHttpMessageConverter cborHttpMessageConverter(
+      JsonMapper jsonMapper, ObjectProvider<JacksonModule> modules) {
+    return new JacksonCborHttpMessageConverter(
+        configureLike(jsonMapper, modules, CBORMapper.builder()));
+  }
+
+  /**
+   * Provides the converter writing and reading {@code application/x-jackson-smile}.
+   *
+   * @param jsonMapper The application's JSON mapper, configured by {@code spring.jackson}.
+   * @param modules The Jackson modules of the application context.
+   * @return A Smile HttpMessageConverter
+   */
+  @Bean
+  public JacksonSmileHttpMessageConverter smileHttpMessageConverter(
+      JsonMapper jsonMapper, ObjectProvider<JacksonModule> modules) {
+    return new JacksonSmileHttpMessageConverter(
+        configureLike(jsonMapper, modules, SmileMapper.builder()));
+  }
+
+  /**
+   * Builds a mapper of another format with the features, property inclusion, naming strategy and
+   * modules of a JSON mapper.
+   *
+   * @param jsonMapper The JSON mapper to copy the configuration from.
+   * @param modules The modules to register.
+   * @param builder The builder of the other format's mapper.
+   * @return The configured mapper.
+   */
+  static <M extends ObjectMapper, B extends MapperBuilder<M, B>> M configureLike(
+      JsonMapper jsonMapper, ObjectProvider<JacksonModule> modules, B builder) {
+    SerializationConfig serialization = jsonMapper.serializationConfig();
+    DeserializationConfig deserialization = jsonMapper.deserializationConfig();
+    for (MapperFeature feature : MapperFeature.values()) {
+      builder.configure(feature, serialization.isEnabled(feature));
+    }
+    for (SerializationFeature feature : SerializationFeature.values()) {
+      builder.configure(feature, serialization.isEnabled(feature));
+    }
+    for (DeserializationFeature feature : DeserializationFeature.values()) {
+      builder.configure(feature, deserialization.isEnabled(feature));
+    }
+    builder.changeDefaultPropertyInclusion(
+        inclusion -> serialization.getDefaultPropertyInclusion());
+    builder.propertyNamingStrategy(serialization.getPropertyNamingStrategy());
+    builder.addModules(modules.orderedStream().toList());
+    return builder.build();
+  }
+}
@@ -6,6 +6,7 @@ import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
 import io.swagger.v3.oas.models.servers.Server;
 import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -21,9 +22,13 @@ import org.springframework.context.annotation.Configuration;
  *   <li>OpenAPI JSON: <a href="http://localhost:8080/api-docs">/api-docs</a>
  * </ul>
  *
+ * <p>Skipped when the API docs are disabled ({@code springdoc.api-docs.enabled=false}), as they are
+ * in the startup-optimized {@code startup} profile.
+ *
  * @author tiberiusdourado
  */
 @Configuration
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", matchIfMissing = true)
 public class OpenApiConfig {
 
   /**
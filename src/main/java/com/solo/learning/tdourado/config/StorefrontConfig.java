@@ -0,0 +1,43 @@
+package com.solo.learning.tdourado.config;
+
+import com.solo.learning.tdourado.cache.StorefrontPartitionedCache;
+import com.solo.learning.tdourado.cache.StringDictionary;
+import com.solo.learning.tdourado.sync.ArtistSyncState;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the per-storefront (country) in-memory caches.
+ *
+ * @author tiberiusdourado
+ */
+@Configuration
+@EnableConfigurationProperties(StorefrontProperties.class)
+public class StorefrontConfig {
+
+  /**
+   * Provides the discography sync states, partitioned per storefront. Each state weighs as many
+   * units as it has albums, so a partition's capacity bounds the albums it holds, and the heap
+   * with them, however large the discographies are.
+   *
+   * @param properties The per-storefront settings.
+   * @return A StorefrontPartitionedCache sized by {@code ituner.storefront}
+   */
+  @Bean
+  public StorefrontPartitionedCache<ArtistSyncState> artistSyncStates(
+      StorefrontProperties properties) {
+    return new StorefrontPartitionedCache<>(
+        properties::capacityOf, state -> Math.max(1, state.size()));
+  }
+
+  /**
+   * Provides the dictionary shared by every in-memory discography, whatever its storefront.
+   *
+   * @return An empty StringDictionary
+   */
+  @Bean
+  public StringDictionary catalogDictionary() {
+    return new StringDictionary();
+  }
+}
@@ -0,0 +1,36 @@
+package com.solo.learning.tdourado.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Per-storefront (country) settings, bound from {@code ituner.storefront}.
+ *
+ * @author tiberiusdourado
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ituner.storefront")
+public class StorefrontProperties {
+  /**
+   * Number of albums whose discographies are kept in memory per storefront, unless overridden
+   * below. An artist without albums counts as one.
+   */
+  private int defaultCapacity = 100_000;
+
+  /** Number of albums kept in memory, by upper-case storefront (country code). */
+  private Map<String, Integer> capacities = new LinkedHashMap<>();
+
+  /**
+   * Gets the in-memory capacity of a storefront.
+   *
+   * @param storefront The upper-case storefront (country code).
+   * @return The storefront's own capacity if configured, the default capacity otherwise.
+   */
+  public int capacityOf(String storefront) {
+    return capacities.getOrDefault(storefront, defaultCapacity);
+  }
+}
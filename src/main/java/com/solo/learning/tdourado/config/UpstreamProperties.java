@@ -0,0 +1,22 @@
+package com.solo.learning.tdourado.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the calls to the iTunes API, bound from {@code ituner.upstream}.
+ *
+ * @author tiberiusdourado
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ituner.upstream")
+public class UpstreamProperties {
+  /** Timeout of a single iTunes call. Can be changed at runtime through the actuator. */
+  private Duration timeout = Duration.ofSeconds(10);
+
+  /** Number of most recent iTunes calls the latency percentiles are computed over. */
+  private int latencySamples = 1024;
+}
@@ -1,5 +1,7 @@
 package com.solo.learning.tdourado.config;
 
+import com.solo.learning.tdourado.api.upstream.UpstreamMonitor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -10,6 +12,7 @@ import org.springframework.web.reactive.function.client.WebClient;
  * <p>Provides a WebClient.Builder bean for dependency injection into controllers and services.
  */
 @Configuration
+@EnableConfigurationProperties(UpstreamProperties.class)
 public class WebClientConfig {
 
   /**
@@ -21,4 +24,15 @@ public class WebClientConfig {
   public WebClient.Builder webClientBuilder() {
     return WebClient.builder();
   }
+
+  /**
+   * Provides the monitor applying the timeout to, and recording, every iTunes call.
+   *
+   * @param properties The upstream settings.
+   * @return An UpstreamMonitor configured by {@code ituner.upstream}
+   */
+  @Bean
+  public UpstreamMonitor upstreamMonitor(UpstreamProperties properties) {
+    return new UpstreamMonitor(properties);
+  }
 }
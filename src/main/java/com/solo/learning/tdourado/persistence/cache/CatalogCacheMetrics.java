@@ -0,0 +1,65 @@
+package com.solo.learning.tdourado.persistence.cache;
+
+import com.solo.learning.tdourado.config.CatalogCacheProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the hit ratio of every configured catalog cache region to the actuator metrics, as
+ * {@code ituner.catalog.cache.hit.ratio} tagged with the region name.
+ *
+ * @author tiberiusdourado
+ */
+@Component
+public class CatalogCacheMetrics implements MeterBinder {
+
+  private final EntityManagerFactory entityManagerFactory;
+  private final CatalogCacheProperties properties;
+
+  /**
+   * Constructor for the CatalogCacheMetrics.
+   *
+   * @param entityManagerFactory The EntityManagerFactory whose statistics are published.
+   * @param properties The catalog cache settings listing the regions.
+   */
+  public CatalogCacheMetrics(
+      EntityManagerFactory entityManagerFactory, CatalogCacheProperties properties) {
+    this.entityManagerFactory = entityManagerFactory;
+    this.properties = properties;
+  }
+
+  @Override
+  public void bindTo(final @NotNull MeterRegistry registry) {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    for (String region : properties.getRegions().keySet()) {
+      Gauge.builder("ituner.catalog.cache.hit.ratio", statistics, stats -> hitRatio(stats, region))
+          .tag("region", region)
+          .description("Hit ratio of a Hibernate second-level or query cache region")
+          .register(registry);
+    }
+  }
+
+  /**
+   * Computes the hit ratio of a cache region from the Hibernate statistics.
+   *
+   * @param statistics The Hibernate statistics.
+   * @param region The cache region name.
+   * @return The hit ratio between 0 and 1, or NaN if the region was never read.
+   */
+  public static double hitRatio(Statistics statistics, String region) {
+    CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+    if (regionStatistics == null) {
+      return Double.NaN;
+    }
+    long hits = regionStatistics.getHitCount();
+    long requests = hits + regionStatistics.getMissCount();
+    return requests == 0 ? Double.NaN : (double) hits / requests;
+  }
+}
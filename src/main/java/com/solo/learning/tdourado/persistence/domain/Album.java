@@ -1,8 +1,17 @@
 package com.solo.learning.tdourado.persistence.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Model for the iTunes Album JSON object's relevant attributes.
@@ -10,14 +19,24 @@ import lombok.NoArgsConstructor;
  * @author tiberiusdourado
  */
 @Getter
-// @Entity
+@Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Album.CACHE_REGION)
 @NoArgsConstructor
-@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonIgnoreProperties(value = {"albumId", "storefront"}, ignoreUnknown = true)
 public class Album {
+  /** Second-level cache region of Albums. */
+  public static final String CACHE_REGION = "catalog-album";
+
   // IDs
-  //  @Id
-  //  @GeneratedValue(strategy = GenerationType.AUTO)
-  // private Long albumId;
+  @Id
+  @GeneratedValue(strategy = GenerationType.AUTO)
+  private Long albumId;
+
+  // iTunes storefront (country code) the album was fetched from
+  @Setter
+  @Column(length = 2, nullable = false)
+  private String storefront;
 
   private Integer artistId;
   private Integer collectionId;
@@ -31,4 +50,70 @@ public class Album {
   private String currency;
   private String primaryGenreName;
   private String copyright;
+
+  /**
+   * Constructor for an Album that is not persisted, e.g. one rebuilt from a cached discography.
+   *
+   * @param artistId The iTunes ID of the album's artist.
+   * @param collectionId The iTunes collection ID of the album.
+   * @param artistName The name of the album's artist.
+   * @param collectionName The name of the album.
+   * @param collectionPrice The price of the album.
+   * @param currency The currency of the price.
+   * @param primaryGenreName The primary genre of the album.
+   * @param copyright The copyright notice of the album.
+   */
+  public Album(
+      Integer artistId,
+      Integer collectionId,
+      String artistName,
+      String collectionName,
+      Double collectionPrice,
+      String currency,
+      String primaryGenreName,
+      String copyright) {
+    this.artistId = artistId;
+    this.collectionId = collectionId;
+    this.artistName = artistName;
+    this.collectionName = collectionName;
+    this.collectionPrice = collectionPrice;
+    this.currency = currency;
+    this.primaryGenreName = primaryGenreName;
+    this.copyright = copyright;
+  }
+
+  /**
+   * Copies every iTunes attribute (everything but the albumId and storefront) from another Album,
+   * so an already persisted row can be updated in place.
+   *
+   * @param source The Album whose attributes should be copied.
+   */
+  public void copyContentFrom(Album source) {
+    this.artistId = source.artistId;
+    this.collectionId = source.collectionId;
+    this.artistName = source.artistName;
+    this.collectionName = source.collectionName;
+    this.collectionPrice = source.collectionPrice;
+    this.currency = source.currency;
+    this.primaryGenreName = source.primaryGenreName;
+    this.copyright = source.copyright;
+  }
+
+  /**
+   * Hash over the iTunes attributes of this Album. Two Albums with the same content always hash
+   * to the same value, which is what the discography sync uses to detect upstream changes.
+   *
+   * @return A 64-bit content hash that ignores the albumId and storefront.
+   */
+  public long contentHash() {
+    return ContentHash.of(
+        artistId,
+        collectionId,
+        artistName,
+        collectionName,
+        collectionPrice,
+        currency,
+        primaryGenreName,
+        copyright);
+  }
 }
@@ -1,27 +1,43 @@
 package com.solo.learning.tdourado.persistence.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
 import lombok.Data;
 import lombok.Generated;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Model for the iTunes Artist JSON object's relevant attributes.
  *
  * @author tiberiusdourado
  */
-@JsonIgnoreProperties(value = "artistUniqueId", ignoreUnknown = true)
-// @Entity
+@JsonIgnoreProperties(value = {"artistUniqueId", "storefront"}, ignoreUnknown = true)
+@Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Artist.CACHE_REGION)
 @Data
 @NoArgsConstructor
 public class Artist {
-  // @Id @GeneratedValue private Long artistUniqueId;
+  /** Second-level cache region of Artists. */
+  public static final String CACHE_REGION = "catalog-artist";
+
+  @Id @GeneratedValue private Long artistUniqueId;
   private Integer artistId;
   private String artistName;
   private String primaryGenreName;
 
+  // iTunes storefront (country code) the artist was fetched from
+  @Column(length = 2, nullable = false)
+  private String storefront;
+
   /**
-   * Custom constructor to avoid setting the artistUniqueId attribute.
+   * Custom constructor to avoid setting the artistUniqueId and storefront attributes.
    *
    * @param artistId The Artist's iTunes ID.
    * @param artistName The name of the Artist on the iTunes database.
@@ -33,4 +49,13 @@ public class Artist {
     this.artistName = artistName;
     this.primaryGenreName = primaryGenreName;
   }
+
+  /**
+   * Hash over the iTunes attributes of this Artist, ignoring the artistUniqueId and storefront.
+   *
+   * @return A 64-bit content hash used by the discography sync to detect upstream changes.
+   */
+  public long contentHash() {
+    return ContentHash.of(artistId, artistName, primaryGenreName);
+  }
 }
@@ -0,0 +1,66 @@
+package com.solo.learning.tdourado.persistence.domain;
+
+/**
+ * 64-bit hash over the iTunes attributes of an entity, used by the discography sync to detect
+ * upstream changes.
+ *
+ * <p>Each attribute is hashed on its own (strings with 64-bit FNV-1a) and folded into the running
+ * hash through the MurmurHash3 finalizer. Unlike the 32-bit polynomial of {@link
+ * java.util.Objects#hash}, strings such as "Aa" and "BB" do not collide, and neither do values
+ * swapped between attributes.
+ *
+ * @author tiberiusdourado
+ */
+final class ContentHash {
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  // Stands for a missing attribute, distinct from the hash of an empty string.
+  private static final long NULL_HASH = 0x9e3779b97f4a7c15L;
+
+  private ContentHash() {}
+
+  /**
+   * Hashes a sequence of attributes, in order.
+   *
+   * @param values The attributes: Strings, Numbers or nulls.
+   * @return The 64-bit hash.
+   */
+  static long of(Object... values) {
+    long hash = FNV_OFFSET_BASIS;
+    for (Object value : values) {
+      hash = mix(hash ^ hashOf(value));
+    }
+    return hash;
+  }
+
+  private static long hashOf(Object value) {
+    if (value == null) {
+      return NULL_HASH;
+    }
+    if (value instanceof String string) {
+      long hash = FNV_OFFSET_BASIS;
+      for (int i = 0; i < string.length(); i++) {
+        hash = (hash ^ string.charAt(i)) * FNV_PRIME;
+      }
+      return hash;
+    }
+    if (value instanceof Double number) {
+      return mix(Double.doubleToLongBits(number));
+    }
+    if (value instanceof Number number) {
+      return mix(number.longValue());
+    }
+    throw new IllegalArgumentException("Cannot hash a " + value.getClass().getSimpleName());
+  }
+
+  // MurmurHash3's 64-bit finalizer.
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
@@ -0,0 +1,22 @@
+package com.solo.learning.tdourado.persistence.projection;
+
+import com.solo.learning.tdourado.persistence.domain.Album;
+import org.springframework.data.rest.core.config.Projection;
+
+/**
+ * Compact projection of an Album, used as the excerpt of the catalog's album listings.
+ *
+ * @author tiberiusdourado
+ */
+@Projection(name = "summary", types = Album.class)
+public interface AlbumSummary {
+  Long getAlbumId();
+
+  Integer getCollectionId();
+
+  String getCollectionName();
+
+  Double getCollectionPrice();
+
+  String getCurrency();
+}
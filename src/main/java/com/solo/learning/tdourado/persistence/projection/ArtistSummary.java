@@ -0,0 +1,18 @@
+package com.solo.learning.tdourado.persistence.projection;
+
+import com.solo.learning.tdourado.persistence.domain.Artist;
+import org.springframework.data.rest.core.config.Projection;
+
+/**
+ * Compact projection of an Artist, used as the excerpt of the catalog's artist listings.
+ *
+ * @author tiberiusdourado
+ */
+@Projection(name = "summary", types = Artist.class)
+public interface ArtistSummary {
+  Long getArtistUniqueId();
+
+  Integer getArtistId();
+
+  String getArtistName();
+}
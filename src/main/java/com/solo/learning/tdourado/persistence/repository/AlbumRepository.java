@@ -0,0 +1,161 @@
+package com.solo.learning.tdourado.persistence.repository;
+
+import com.solo.learning.tdourado.persistence.domain.Album;
+import com.solo.learning.tdourado.persistence.projection.AlbumSummary;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
+
+/**
+ * Spring Data repository for persisted iTunes Albums, exported under {@code /catalog/albums}.
+ *
+ * <p>Listings use keyset (seek) pagination: a page is requested with the last albumId of the
+ * previous page as {@code after} (0 for the first page) and a {@code size}. Any {@code page} but
+ * 0 is rejected, and the {@code next} links carry {@code after} (see {@link
+ * com.solo.learning.tdourado.persistence.rest.KeysetPagingFilter}). Every listing is backed by
+ * an index ending in album_id (see V1.0.1), so any page costs the same as the first one. Every
+ * listing is scoped to a single storefront ({@code country}). The OFFSET-paged collection resource
+ * is not exported.
+ *
+ * @author tiberiusdourado
+ */
+@RepositoryRestResource(
+    path = "albums",
+    collectionResourceRel = "albums",
+    excerptProjection = AlbumSummary.class)
+public interface AlbumRepository extends JpaRepository<Album, Long> {
+
+  /** Query cache region of the cacheable catalog queries below. */
+  String QUERY_CACHE_REGION = "catalog-album-queries";
+
+  /**
+   * Finds every persisted Album of a storefront whose iTunes collection ID is in the given set.
+   *
+   * @param storefront The storefront (country code).
+   * @param collectionIds The iTunes collection IDs to look for.
+   * @return The matching Albums, in no particular order.
+   */
+  @RestResource(exported = false)
+  List<Album> findByStorefrontAndCollectionIdIn(
+      String storefront, Collection<Integer> collectionIds);
+
+  /**
+   * Finds every persisted Album of an artist in a storefront.
+   *
+   * @param storefront The storefront (country code).
+   * @param artistId The iTunes artist ID.
+   * @return The artist's Albums, in no particular order.
+   */
+  @RestResource(exported = false)
+  List<Album> findByStorefrontAndArtistId(String storefront, Integer artistId);
+
+  /**
+   * Finds the persisted Album with the given iTunes collection ID in a storefront.
+   *
+   * @param storefront The storefront (country code).
+   * @param collectionId The Album's iTunes collection ID.
+   * @return The Album, if it has been persisted.
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+    @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+  })
+  @RestResource(path = "by-collection-id", rel = "by-collection-id")
+  Optional<Album> findFirstByStorefrontAndCollectionId(
+      @Param("country") String storefront, @Param("collectionId") Integer collectionId);
+
+  /**
+   * Seeks the next page of an artist's albums in a storefront, ordered by albumId.
+   *
+   * <p>The ORDER BY leads with the storefront and artistId, which are fixed here, so that H2
+   * matches it to the order of idx_album_artist_id and skips the sort.
+   *
+   * @param storefront The storefront (country code).
+   * @param artistId The iTunes artist ID.
+   * @param after The last albumId of the previous page, or 0 for the first page.
+   * @param pageable The page size. The page number must stay 0.
+   * @return A Slice with the next albums, fetched without any count query.
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+    @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+  })
+  @RestResource(path = "by-artist", rel = "by-artist")
+  @Query(
+      """
+      select a from Album a
+      where a.storefront = :country and a.artistId = :artistId and a.albumId > :after
+      order by a.storefront, a.artistId, a.albumId
+      """)
+  Slice<Album> findByStorefrontAndArtistIdAndAlbumIdGreaterThanOrderByAlbumIdAsc(
+      @Param("country") String storefront,
+      @Param("artistId") Integer artistId,
+      @Param("after") Long after,
+      Pageable pageable);
+
+  /**
+   * Seeks the next page of albums of a genre in a storefront, ordered by albumId.
+   *
+   * <p>As above, the fixed storefront and genre lead the ORDER BY, to match
+   * idx_album_primary_genre_name.
+   *
+   * @param storefront The storefront (country code).
+   * @param primaryGenreName The iTunes primary genre name.
+   * @param after The last albumId of the previous page, or 0 for the first page.
+   * @param pageable The page size. The page number must stay 0.
+   * @return A Slice with the next albums, fetched without any count query.
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+    @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+  })
+  @RestResource(path = "by-genre", rel = "by-genre")
+  @Query(
+      """
+      select a from Album a
+      where a.storefront = :country and a.primaryGenreName = :genre and a.albumId > :after
+      order by a.storefront, a.primaryGenreName, a.albumId
+      """)
+  Slice<Album> findByStorefrontAndPrimaryGenreNameAndAlbumIdGreaterThanOrderByAlbumIdAsc(
+      @Param("country") String storefront,
+      @Param("genre") String primaryGenreName,
+      @Param("after") Long after,
+      Pageable pageable);
+
+  /**
+   * Seeks the next page of every stored album, whatever its storefront, ordered by albumId. Meant
+   * for one-off passes over the whole table, so the albums read are kept out of the second-level
+   * cache.
+   *
+   * @param after The last albumId of the previous page, or 0 for the first page.
+   * @param pageable The page size. The page number must stay 0.
+   * @return A Slice with the next albums, fetched without any count query.
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+  @RestResource(exported = false)
+  Slice<Album> findByAlbumIdGreaterThanOrderByAlbumIdAsc(Long after, Pageable pageable);
+
+  @Override
+  @RestResource(exported = false)
+  List<Album> findAll();
+
+  @Override
+  @RestResource(exported = false)
+  List<Album> findAll(Sort sort);
+
+  @Override
+  @RestResource(exported = false)
+  Page<Album> findAll(Pageable pageable);
+}
@@ -0,0 +1,102 @@
+package com.solo.learning.tdourado.persistence.repository;
+
+import com.solo.learning.tdourado.persistence.domain.Artist;
+import com.solo.learning.tdourado.persistence.projection.ArtistSummary;
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
+
+/**
+ * Spring Data repository for persisted iTunes Artists, exported under {@code /catalog/artists}.
+ *
+ * <p>Listings use keyset (seek) pagination, the same way as {@link AlbumRepository}. The
+ * OFFSET-paged collection resource is not exported.
+ *
+ * @author tiberiusdourado
+ */
+@RepositoryRestResource(
+    path = "artists",
+    collectionResourceRel = "artists",
+    excerptProjection = ArtistSummary.class)
+public interface ArtistRepository extends JpaRepository<Artist, Long> {
+
+  /** Query cache region of the cacheable catalog queries below. */
+  String QUERY_CACHE_REGION = "catalog-artist-queries";
+
+  /**
+   * Finds the persisted Artist with the given iTunes artist ID in a storefront.
+   *
+   * @param storefront The storefront (country code).
+   * @param artistId The Artist's iTunes ID.
+   * @return The Artist, if it has been persisted before.
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+    @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+  })
+  @RestResource(path = "by-artist-id", rel = "by-artist-id")
+  Optional<Artist> findFirstByStorefrontAndArtistId(
+      @Param("country") String storefront, @Param("artistId") Integer artistId);
+
+  /**
+   * Seeks the next page of a storefront's artists whose name starts with a prefix, ordered by name
+   * and then by artistUniqueId. The position is the (name, artistUniqueId) pair of the last artist
+   * of the previous page, or an empty name and 0 for the first page.
+   *
+   * <p>Names are also bounded above by the prefix followed by U+FFFF, so the index range scan stops
+   * at the end of the prefix instead of running on to the end of the storefront's names. The
+   * prefix is matched literally: its {@code %}, {@code _} and {@code \} are escaped. The ORDER BY
+   * leads with the fixed storefront so that H2 matches it to the order of idx_artist_artist_name.
+   *
+   * @param storefront The storefront (country code).
+   * @param prefix The beginning of the artist name.
+   * @param afterName The name of the last artist of the previous page.
+   * @param afterId The artistUniqueId of the last artist of the previous page.
+   * @param pageable The page size. The page number must stay 0.
+   * @return A Slice with the next artists, fetched without any count query.
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+    @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+  })
+  @RestResource(path = "by-name", rel = "by-name")
+  @Query(
+      """
+      select a from Artist a
+      where a.storefront = :country
+        and a.artistName like concat(:#{escape([1])}, '%') escape '\\'
+        and a.artistName < concat(:prefix, '\uffff')
+        and (a.artistName > :afterName
+          or (a.artistName = :afterName and a.artistUniqueId > :afterId))
+      order by a.storefront, a.artistName, a.artistUniqueId
+      """)
+  Slice<Artist> findByNamePrefix(
+      @Param("country") String storefront,
+      @Param("prefix") String prefix,
+      @Param("afterName") String afterName,
+      @Param("afterId") Long afterId,
+      Pageable pageable);
+
+  @Override
+  @RestResource(exported = false)
+  List<Artist> findAll();
+
+  @Override
+  @RestResource(exported = false)
+  List<Artist> findAll(Sort sort);
+
+  @Override
+  @RestResource(exported = false)
+  Page<Artist> findAll(Pageable pageable);
+}
@@ -0,0 +1,152 @@
+package com.solo.learning.tdourado.persistence.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * Enforces keyset (seek) pagination on the catalog's search resources.
+ *
+ * <p>The search resources take their position as {@code after} (the last albumId), or as {@code
+ * afterName} and {@code afterId} (the last artist). Spring Data REST would still turn a {@code
+ * page} parameter into an OFFSET, and its {@code next} links only count pages. This filter
+ * rejects any {@code page} other than 0 with a 400, and rewrites the {@code next} link of every
+ * search result to carry the position of the result's last entry instead of a page number.
+ *
+ * @author tiberiusdourado
+ */
+@Slf4j
+@Component
+public class KeysetPagingFilter extends OncePerRequestFilter {
+
+  private static final String PAGE = "page";
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final String basePath;
+
+  /**
+   * Constructor for the KeysetPagingFilter.
+   *
+   * @param basePath The base path of the Spring Data REST resources.
+   */
+  public KeysetPagingFilter(@Value("${spring.data.rest.base-path:}") String basePath) {
+    this.basePath = basePath;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(final @NotNull HttpServletRequest request) {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    return !path.startsWith(basePath + "/") || !path.contains("/search/");
+  }
+
+  @Override
+  protected void doFilterInternal(
+      final @NotNull HttpServletRequest request,
+      final @NotNull HttpServletResponse response,
+      final @NotNull FilterChain filterChain)
+      throws ServletException, IOException {
+    String page = request.getParameter(PAGE);
+    if (page != null && !page.equals("0")) {
+      log.warn("Rejecting catalog search {} on page {}", request.getRequestURI(), page);
+      response.sendError(
+          HttpStatus.BAD_REQUEST.value(),
+          "Catalog searches are keyset-paged: follow the next link instead of passing a page");
+      return;
+    }
+
+    ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+    filterChain.doFilter(request, wrapper);
+    if (wrapper.getStatus() == HttpStatus.OK.value()) {
+      byte[] body = wrapper.getContentAsByteArray();
+      byte[] rewritten = withKeysetNextLink(body, wrapper.getContentType());
+      if (rewritten != body) {
+        wrapper.resetBuffer();
+        wrapper.getOutputStream().write(rewritten);
+      }
+    }
+    wrapper.copyBodyToResponse();
+  }
+
+  /**
+   * Points the {@code next} link of a search result at the position of its last entry.
+   *
+   * @param body The HAL JSON body of the search result.
+   * @param contentType The content type of the body.
+   * @return The rewritten body, or the given body if it has no next link to rewrite.
+   * @throws IOException If the body cannot be parsed.
+   */
+  byte[] withKeysetNextLink(byte[] body, String contentType) throws IOException {
+    if (body.length == 0 || contentType == null || !contentType.contains("json")) {
+      return body;
+    }
+    JsonNode root = objectMapper.readTree(body);
+    JsonNode next = root.path("_links").path("next");
+    JsonNode last = lastEntry(root.path("_embedded"));
+    if (!next.isObject() || last == null) {
+      return body;
+    }
+
+    // Strip the URI template variables, if any, and put them back afterwards.
+    String href = next.path("href").asText();
+    int template = href.indexOf('{');
+    String variables = template < 0 ? "" : href.substring(template);
+    UriComponents link =
+        UriComponentsBuilder.fromUriString(template < 0 ? href : href.substring(0, template))
+            .build(true);
+    String selfHref = last.path("_links").path("self").path("href").asText();
+    String lastId = lastSegment(selfHref);
+
+    UriComponentsBuilder rewritten = UriComponentsBuilder.newInstance().uriComponents(link);
+    rewritten.replaceQueryParam(PAGE);
+    if (link.getQueryParams().containsKey("afterId")) {
+      rewritten
+          .replaceQueryParam("afterId", lastId)
+          .replaceQueryParam("afterName", encode(last.path("artistName").asText()));
+    } else if (link.getQueryParams().containsKey("after")) {
+      rewritten.replaceQueryParam("after", lastId);
+    } else {
+      return body;
+    }
+    ((ObjectNode) next).put("href", rewritten.build(true).toUriString() + variables);
+    return objectMapper.writeValueAsBytes(root);
+  }
+
+  // The entries of a HAL result sit in the single array under _embedded.
+  private static JsonNode lastEntry(JsonNode embedded) {
+    Iterator<JsonNode> relations = embedded.elements();
+    while (relations.hasNext()) {
+      JsonNode entries = relations.next();
+      if (entries.isArray() && !entries.isEmpty()) {
+        return entries.get(entries.size() - 1);
+      }
+    }
+    return null;
+  }
+
+  private static String lastSegment(String href) {
+    int template = href.indexOf('{');
+    String uri = template < 0 ? href : href.substring(0, template);
+    return uri.substring(uri.lastIndexOf('/') + 1);
+  }
+
+  private static String encode(String value) {
+    return UriUtils.encodeQueryParam(value, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,280 @@
+package com.solo.learning.tdourado.stats;
+
+import com.solo.learning.tdourado.cache.StringDictionary;
+import com.solo.learning.tdourado.persistence.domain.Album;
+import com.solo.learning.tdourado.persistence.repository.AlbumRepository;
+import com.solo.learning.tdourado.sync.AlbumChangeEvent;
+import com.solo.learning.tdourado.sync.DiscographySyncService;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Genre and price statistics over every stored album, kept up to date as albums are stored.
+ *
+ * <p>The statistics are filled from the album table once, in the background once the application
+ * is ready, so startup never waits for a scan of the whole table; they are not {@link #isReady()
+ * ready} until the fill completes. They follow the {@link AlbumChangeEvent}s of committed syncs:
+ * the content a sync overwrote is taken out and the content it stored is added. Reading them never
+ * touches the database.
+ *
+ * <p>Syncs keep committing during the fill. The table is read in album ID order, one page at a time
+ * while no sync runs (see {@link DiscographySyncService#runExclusively}), and changes to rows past
+ * the last page read are left for the fill to read, so every album is counted exactly once.
+ *
+ * <ul>
+ *   <li>Album counts per genre sit in an array of striped counters indexed by the genre's code in
+ *       the shared {@link StringDictionary}, so a read is linear in the number of genres.
+ *   <li>Prices are summarized per storefront and currency in a {@link PriceSummary}. A currency
+ *       used by several storefronts (e.g. EUR) is answered by merging their summaries.
+ * </ul>
+ *
+ * @author tiberiusdourado
+ */
+@Slf4j
+@Component
+public class CatalogStatistics {
+
+  // Albums read per query while filling the statistics from the album table.
+  private static final int FILL_PAGE_SIZE = 1000;
+
+  private final AlbumRepository albumRepository;
+  private final StringDictionary dictionary;
+  private final DiscographySyncService syncService;
+  private final TaskExecutor executor;
+
+  // ID of the last album read by the fill, and whether the fill read the last one. Only written
+  // while no sync runs, and read by the listeners of syncs.
+  private volatile long filledUpTo;
+  private volatile boolean ready;
+
+  private final LongAdder albums = new LongAdder();
+  private final AtomicReferenceArray<LongAdder> albumsPerGenre =
+      new AtomicReferenceArray<>(StringDictionary.MAX_SIZE);
+
+  // Keyed by storefront index << 16 | currency code.
+  private final ConcurrentMap<Integer, PriceSummary> prices = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor for the CatalogStatistics.
+   *
+   * @param albumRepository Repository of the stored Albums.
+   * @param dictionary Dictionary encoding the genres and currencies.
+   * @param syncService Service syncing the discographies, which the fill reads around.
+   * @param executor Executor the fill runs on.
+   */
+  public CatalogStatistics(
+      AlbumRepository albumRepository,
+      StringDictionary dictionary,
+      DiscographySyncService syncService,
+      TaskExecutor executor) {
+    this.albumRepository = albumRepository;
+    this.dictionary = dictionary;
+    this.syncService = syncService;
+    this.executor = executor;
+  }
+
+  /** Starts filling the statistics from the album table, in the background. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    executor.execute(this::fill);
+  }
+
+  /**
+   * Tells whether the statistics cover every stored album.
+   *
+   * @return Whether the fill from the album table has completed.
+   */
+  public boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * Moves the statistics along with a committed sync.
+   *
+   * @param event The change of a stored album.
+   */
+  @TransactionalEventListener
+  public void onAlbumChange(final @NotNull AlbumChangeEvent event) {
+    if (!ready && (event.albumId() == null || event.albumId() > filledUpTo)) {
+      // The fill has yet to read that row, and will find it as the sync left it.
+      return;
+    }
+    if (event.before() != null) {
+      remove(event.storefront(), event.before());
+    }
+    if (event.after() != null) {
+      add(event.storefront(), event.after());
+    }
+  }
+
+  /**
+   * Counts a stored album.
+   *
+   * @param storefront The storefront (country code) the album is stored for.
+   * @param album The album's content.
+   */
+  public void add(final @NotNull String storefront, final @NotNull Album album) {
+    update(storefront, album, true);
+  }
+
+  /**
+   * Stops counting a stored album whose content was overwritten.
+   *
+   * @param storefront The storefront (country code) the album is stored for.
+   * @param album The album's overwritten content.
+   */
+  public void remove(final @NotNull String storefront, final @NotNull Album album) {
+    update(storefront, album, false);
+  }
+
+  /**
+   * Gets the number of stored albums.
+   *
+   * @return The number of stored albums, over every storefront.
+   */
+  public long getAlbums() {
+    return albums.sum();
+  }
+
+  /**
+   * Counts the stored albums per genre.
+   *
+   * @return Every genre with at least one album, the largest first.
+   */
+  public List<GenreCount> genres() {
+    List<GenreCount> genres = new ArrayList<>();
+    int codes = dictionary.size();
+    for (short code = 0; code < codes; code++) {
+      LongAdder counter = albumsPerGenre.get(code);
+      long count = counter == null ? 0 : counter.sum();
+      if (count > 0) {
+        genres.add(new GenreCount(dictionary.decode(code), count));
+      }
+    }
+    genres.sort(
+        Comparator.comparingLong(GenreCount::albums).reversed().thenComparing(GenreCount::genre));
+    return genres;
+  }
+
+  /**
+   * Summarizes the prices of the stored albums in a currency.
+   *
+   * @param currency The currency (ISO 4217 code).
+   * @param storefront The storefront (country code) to limit the summary to, or null for all.
+   * @return The merged summary, or nothing if no stored album has a price in that currency.
+   */
+  public Optional<PriceSummary> prices(final @NotNull String currency, String storefront) {
+    short currencyCode = dictionary.lookup(currency);
+    if (currencyCode == StringDictionary.NULL_CODE) {
+      return Optional.empty();
+    }
+    PriceSummary merged = new PriceSummary();
+    prices.forEach(
+        (key, summary) -> {
+          boolean matches =
+              (short) (int) key == currencyCode
+                  && (storefront == null || key >>> 16 == storefrontIndex(storefront));
+          if (matches) {
+            merged.merge(summary);
+          }
+        });
+    return merged.getCount() > 0 ? Optional.of(merged) : Optional.empty();
+  }
+
+  /** Fills the statistics from the album table, one keyset page at a time. */
+  private void fill() {
+    long start = System.currentTimeMillis();
+    try {
+      while (!ready) {
+        syncService.runExclusively(this::fillPage);
+      }
+      log.info(
+          "Catalog statistics filled with {} stored albums in {}ms",
+          albums.sum(),
+          System.currentTimeMillis() - start);
+    } catch (RuntimeException e) {
+      log.error(
+          "Catalog statistics could not be filled, they stay unavailable: {}", e.getMessage(), e);
+    }
+  }
+
+  private void fillPage() {
+    Slice<Album> page =
+        albumRepository.findByAlbumIdGreaterThanOrderByAlbumIdAsc(
+            filledUpTo, PageRequest.of(0, FILL_PAGE_SIZE));
+    for (Album album : page) {
+      add(album.getStorefront(), album);
+      filledUpTo = album.getAlbumId();
+    }
+    ready = !page.hasNext();
+  }
+
+  private void update(String storefront, Album album, boolean add) {
+    long delta = add ? 1 : -1;
+    albums.add(delta);
+
+    short genre = encode(album.getPrimaryGenreName());
+    if (genre != StringDictionary.NULL_CODE) {
+      counter(genre).add(delta);
+    }
+
+    short currency = encode(album.getCurrency());
+    Double price = album.getCollectionPrice();
+    if (currency != StringDictionary.NULL_CODE && price != null && price >= 0) {
+      int key = storefrontIndex(storefront) << 16 | (currency & 0xFFFF);
+      PriceSummary summary = prices.computeIfAbsent(key, ignored -> new PriceSummary());
+      if (add) {
+        summary.add(price);
+      } else {
+        summary.remove(price);
+      }
+    }
+  }
+
+  private short encode(String value) {
+    try {
+      return dictionary.encode(value);
+    } catch (IllegalStateException e) {
+      // The album still counts towards the total, just not towards that genre or currency.
+      log.warn("Catalog statistics cannot encode '{}': {}", value, e.getMessage());
+      return StringDictionary.NULL_CODE;
+    }
+  }
+
+  private LongAdder counter(short genre) {
+    LongAdder counter = albumsPerGenre.get(genre);
+    if (counter == null) {
+      albumsPerGenre.compareAndSet(genre, null, new LongAdder());
+      counter = albumsPerGenre.get(genre);
+    }
+    return counter;
+  }
+
+  // Two-letter storefronts map onto 0..675.
+  private static int storefrontIndex(String storefront) {
+    return (storefront.charAt(0) - 'A') * 26 + (storefront.charAt(1) - 'A');
+  }
+
+  /**
+   * Number of stored albums of a genre.
+   *
+   * @param genre The iTunes primary genre name.
+   * @param albums The number of stored albums.
+   */
+  public record GenreCount(String genre, long albums) {}
+}
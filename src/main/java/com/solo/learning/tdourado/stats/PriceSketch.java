@@ -0,0 +1,138 @@
+package com.solo.learning.tdourado.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Mergeable quantile sketch of prices, with logarithmic buckets.
+ *
+ * <p>Every bucket covers prices within {@link #RELATIVE_ACCURACY} of its estimate, so any quantile
+ * comes back with at most that relative error, however many prices were added. Buckets are plain
+ * atomic counters: adding, removing and merging never lock, and two sketches merge by adding their
+ * buckets. Prices below a cent or above a million share the lowest or highest bucket.
+ *
+ * @author tiberiusdourado
+ */
+public final class PriceSketch {
+  /** Maximum relative error of the quantiles. */
+  public static final double RELATIVE_ACCURACY = 0.01;
+
+  private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+  private static final double LOG_GAMMA = Math.log(GAMMA);
+  private static final int MIN_INDEX = index(0.01);
+  private static final int MAX_INDEX = index(1_000_000);
+
+  private final AtomicLongArray buckets = new AtomicLongArray(MAX_INDEX - MIN_INDEX + 1);
+  private final AtomicLong zeros = new AtomicLong();
+
+  /**
+   * Adds a price.
+   *
+   * @param price The price, zero or positive.
+   */
+  public void add(double price) {
+    update(price, 1);
+  }
+
+  /**
+   * Removes a price that was added before.
+   *
+   * @param price The price, zero or positive.
+   */
+  public void remove(double price) {
+    update(price, -1);
+  }
+
+  /**
+   * Adds every price of another sketch to this one.
+   *
+   * @param other The sketch to merge in.
+   */
+  public void merge(PriceSketch other) {
+    zeros.addAndGet(other.zeros.get());
+    for (int i = 0; i < buckets.length(); i++) {
+      long count = other.buckets.get(i);
+      if (count != 0) {
+        buckets.addAndGet(i, count);
+      }
+    }
+  }
+
+  /**
+   * Estimates the lowest price, from the lowest non-empty bucket.
+   *
+   * @return The estimated price, or NaN if the sketch is empty.
+   */
+  public double min() {
+    if (zeros.get() > 0) {
+      return 0;
+    }
+    for (int i = 0; i < buckets.length(); i++) {
+      if (buckets.get(i) > 0) {
+        return estimate(i + MIN_INDEX);
+      }
+    }
+    return Double.NaN;
+  }
+
+  /**
+   * Estimates the highest price, from the highest non-empty bucket.
+   *
+   * @return The estimated price, or NaN if the sketch is empty.
+   */
+  public double max() {
+    for (int i = buckets.length() - 1; i >= 0; i--) {
+      if (buckets.get(i) > 0) {
+        return estimate(i + MIN_INDEX);
+      }
+    }
+    return zeros.get() > 0 ? 0 : Double.NaN;
+  }
+
+  /**
+   * Estimates a quantile of the prices.
+   *
+   * @param quantile The quantile, between 0 and 1.
+   * @return The estimated price, or NaN if the sketch is empty.
+   */
+  public double quantile(double quantile) {
+    long total = zeros.get();
+    for (int i = 0; i < buckets.length(); i++) {
+      total += buckets.get(i);
+    }
+    if (total <= 0) {
+      return Double.NaN;
+    }
+
+    long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = zeros.get();
+    if (seen >= rank) {
+      return 0;
+    }
+    for (int i = 0; i < buckets.length(); i++) {
+      seen += buckets.get(i);
+      if (seen >= rank) {
+        return estimate(i + MIN_INDEX);
+      }
+    }
+    return estimate(MAX_INDEX);
+  }
+
+  private void update(double price, long delta) {
+    if (price <= 0) {
+      zeros.addAndGet(delta);
+    } else {
+      buckets.addAndGet(Math.clamp(index(price), MIN_INDEX, MAX_INDEX) - MIN_INDEX, delta);
+    }
+  }
+
+  // Bucket i covers the prices in (GAMMA^(i-1), GAMMA^i].
+  private static int index(double price) {
+    return (int) Math.ceil(Math.log(price) / LOG_GAMMA);
+  }
+
+  // The point of a bucket within RELATIVE_ACCURACY of both of its bounds.
+  private static double estimate(int index) {
+    return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+  }
+}
@@ -0,0 +1,104 @@
+package com.solo.learning.tdourado.stats;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streaming summary of prices in a single currency: count and mean, and a {@link PriceSketch}
+ * for the lowest and highest price and the quantiles.
+ *
+ * <p>Every field is a striped accumulator or a sketch of atomic counters, so concurrent updates
+ * never lock or contend on a single counter, and summaries merge field by field. Removing a price
+ * (when a stored album's price changes) updates everything, the lowest and highest price included.
+ *
+ * @author tiberiusdourado
+ */
+public final class PriceSummary {
+
+  private final LongAdder count = new LongAdder();
+  private final DoubleAdder sum = new DoubleAdder();
+  private final PriceSketch sketch = new PriceSketch();
+
+  /**
+   * Adds a price.
+   *
+   * @param price The price.
+   */
+  public void add(double price) {
+    count.increment();
+    sum.add(price);
+    sketch.add(price);
+  }
+
+  /**
+   * Removes a price that was added before.
+   *
+   * @param price The price.
+   */
+  public void remove(double price) {
+    count.decrement();
+    sum.add(-price);
+    sketch.remove(price);
+  }
+
+  /**
+   * Adds every price of another summary to this one.
+   *
+   * @param other The summary to merge in.
+   */
+  public void merge(PriceSummary other) {
+    count.add(other.count.sum());
+    sum.add(other.sum.sum());
+    sketch.merge(other.sketch);
+  }
+
+  /**
+   * Gets the number of prices.
+   *
+   * @return The number of prices added and not removed.
+   */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Gets the mean price.
+   *
+   * @return The mean, or NaN if there are no prices.
+   */
+  public double getMean() {
+    long prices = count.sum();
+    return prices <= 0 ? Double.NaN : sum.sum() / prices;
+  }
+
+  /**
+   * Estimates the lowest price.
+   *
+   * @return The lowest price, within {@link PriceSketch#RELATIVE_ACCURACY}, or NaN if there are no
+   *     prices.
+   */
+  public double getMin() {
+    return sketch.min();
+  }
+
+  /**
+   * Estimates the highest price.
+   *
+   * @return The highest price, within {@link PriceSketch#RELATIVE_ACCURACY}, or NaN if there are no
+   *     prices.
+   */
+  public double getMax() {
+    return sketch.max();
+  }
+
+  /**
+   * Estimates a quantile of the prices.
+   *
+   * @param quantile The quantile, between 0 and 1.
+   * @return The estimated price, within {@link PriceSketch#RELATIVE_ACCURACY}, or NaN if there are
+   *     no prices.
+   */
+  public double quantile(double quantile) {
+    return sketch.quantile(quantile);
+  }
+}
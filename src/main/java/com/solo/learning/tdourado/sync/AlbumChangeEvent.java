@@ -0,0 +1,38 @@
+package com.solo.learning.tdourado.sync;
+
+import com.solo.learning.tdourado.persistence.domain.Album;
+
+/**
+ * Published for every album whose state actually changed during a discography sync. Listeners
+ * use it to invalidate whatever they derived from the album, or to update what they aggregate
+ * over the stored albums.
+ *
+ * <p>A REMOVED event carries the content of the deleted row as {@code before}. If the row was kept,
+ * because it belongs to another artist, it comes without content. The content Albums are detached
+ * copies that are safe to keep.
+ *
+ * @param storefront The storefront (country code) the discography was synced for.
+ * @param artistId The iTunes ID of the artist whose discography was synced.
+ * @param collectionId The iTunes collection ID of the album.
+ * @param albumId The ID of the album's row, or null if no row was written or deleted.
+ * @param type What happened to the album.
+ * @param before The stored content the sync overwrote or deleted, or null if there was none.
+ * @param after The content the sync stored, or null if nothing was stored.
+ * @author tiberiusdourado
+ */
+public record AlbumChangeEvent(
+    String storefront,
+    int artistId,
+    int collectionId,
+    Long albumId,
+    Type type,
+    Album before,
+    Album after) {
+
+  /** Kinds of album changes detected by the sync. */
+  public enum Type {
+    ADDED,
+    CHANGED,
+    REMOVED
+  }
+}
@@ -0,0 +1,200 @@
+package com.solo.learning.tdourado.sync;
+
+import com.solo.learning.tdourado.cache.StringDictionary;
+import com.solo.learning.tdourado.persistence.domain.Album;
+import com.solo.learning.tdourado.persistence.domain.Artist;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Immutable snapshot of what is known about an artist's discography after a sync.
+ *
+ * <p>The known iTunes collection IDs are kept as a sorted primitive int set, with the 64-bit
+ * content hash of each album in a parallel array. This keeps the state of a large catalog down to
+ * two small arrays instead of a map of boxed keys to Album copies.
+ *
+ * <p>A state {@link #capture captured} after a sync also keeps the discography's content, in
+ * {@link DiscographyColumns}, so it can be served again without reading the database.
+ *
+ * @author tiberiusdourado
+ */
+@Slf4j
+public final class ArtistSyncState {
+  /** State of an artist that has never been synced. */
+  public static final ArtistSyncState EMPTY = new ArtistSyncState(0, new int[0], new long[0], null);
+
+  private final long artistHash;
+  private final int[] collectionIds;
+  private final long[] contentHashes;
+
+  // Null unless the state was captured with its content.
+  private final DiscographyColumns columns;
+
+  private ArtistSyncState(
+      long artistHash, int[] collectionIds, long[] contentHashes, DiscographyColumns columns) {
+    this.artistHash = artistHash;
+    this.collectionIds = collectionIds;
+    this.contentHashes = contentHashes;
+    this.columns = columns;
+  }
+
+  /**
+   * Builds the state describing the given artist and albums. Albums without a collection ID are
+   * ignored, and if a collection ID shows up more than once the last occurrence wins.
+   *
+   * @param artist The artist the discography belongs to, or null if unknown.
+   * @param albums The albums of the discography.
+   * @return A new ArtistSyncState.
+   */
+  public static ArtistSyncState of(Artist artist, Collection<Album> albums) {
+    return build(artist, albums, null);
+  }
+
+  /**
+   * Builds the state describing the given artist and albums, keeping the albums' content in a
+   * columnar form. Albums are picked as in {@link #of}. If the dictionary is full, the content is
+   * left out and the state behaves as if built by {@link #of}.
+   *
+   * @param artist The artist the discography belongs to.
+   * @param albums The albums of the discography.
+   * @param dictionary The dictionary encoding the albums' currencies and genres.
+   * @return A new ArtistSyncState holding the discography's content.
+   */
+  public static ArtistSyncState capture(
+      Artist artist, Collection<Album> albums, StringDictionary dictionary) {
+    return build(artist, albums, dictionary);
+  }
+
+  private static ArtistSyncState build(
+      Artist artist, Collection<Album> albums, StringDictionary dictionary) {
+    Album[] withIds = new Album[albums.size()];
+    long[] packed = new long[albums.size()];
+    int count = 0;
+    for (Album album : albums) {
+      if (album.getCollectionId() != null) {
+        // Collection ID in the high half, arrival order in the low half, so a single sort groups
+        // duplicates together with the latest one last.
+        withIds[count] = album;
+        packed[count] = ((long) album.getCollectionId() << 32) | count;
+        count++;
+      }
+    }
+    Arrays.sort(packed, 0, count);
+
+    int[] ids = new int[count];
+    long[] hashes = new long[count];
+    Album[] picked = new Album[count];
+    int size = 0;
+    for (int i = 0; i < count; i++) {
+      int id = (int) (packed[i] >> 32);
+      if (i + 1 < count && (int) (packed[i + 1] >> 32) == id) {
+        continue;
+      }
+      ids[size] = id;
+      picked[size] = withIds[(int) packed[i]];
+      hashes[size] = picked[size].contentHash();
+      size++;
+    }
+
+    int[] collectionIds = Arrays.copyOf(ids, size);
+    DiscographyColumns columns = null;
+    if (dictionary != null && artist != null && artist.getArtistId() != null) {
+      try {
+        columns =
+            DiscographyColumns.of(artist, collectionIds, Arrays.copyOf(picked, size), dictionary);
+      } catch (IllegalStateException exception) {
+        log.warn(
+            "Not keeping the discography of artist ID {} in memory: {}",
+            artist.getArtistId(),
+            exception.getMessage());
+      }
+    }
+
+    return new ArtistSyncState(
+        artist == null ? 0 : artist.contentHash(),
+        collectionIds,
+        Arrays.copyOf(hashes, size),
+        columns);
+  }
+
+  /**
+   * Compares this (newer) state against a previous one.
+   *
+   * @param previous The state the discography had before this one.
+   * @return The albums that were added, changed or removed between both states.
+   */
+  public DiscographyDiff diffAgainst(ArtistSyncState previous) {
+    int[] added = new int[collectionIds.length];
+    int[] changed = new int[collectionIds.length];
+    int[] removed = new int[previous.collectionIds.length];
+    int addedCount = 0;
+    int changedCount = 0;
+    int removedCount = 0;
+
+    // Both ID arrays are sorted, so a single merge pass is enough.
+    int i = 0;
+    int j = 0;
+    while (i < collectionIds.length || j < previous.collectionIds.length) {
+      if (j == previous.collectionIds.length
+          || (i < collectionIds.length && collectionIds[i] < previous.collectionIds[j])) {
+        added[addedCount++] = collectionIds[i++];
+      } else if (i == collectionIds.length || collectionIds[i] > previous.collectionIds[j]) {
+        removed[removedCount++] = previous.collectionIds[j++];
+      } else {
+        if (contentHashes[i] != previous.contentHashes[j]) {
+          changed[changedCount++] = collectionIds[i];
+        }
+        i++;
+        j++;
+      }
+    }
+
+    return new DiscographyDiff(
+        artistHash != previous.artistHash,
+        Arrays.copyOf(added, addedCount),
+        Arrays.copyOf(changed, changedCount),
+        Arrays.copyOf(removed, removedCount));
+  }
+
+  /**
+   * Checks whether an album is part of this state.
+   *
+   * @param collectionId The album's iTunes collection ID.
+   * @return True if the album is known.
+   */
+  public boolean contains(int collectionId) {
+    return Arrays.binarySearch(collectionIds, collectionId) >= 0;
+  }
+
+  /**
+   * Gets the collection IDs of the albums known for the artist.
+   *
+   * @return A sorted copy of the known collection IDs.
+   */
+  public int[] collectionIds() {
+    return collectionIds.clone();
+  }
+
+  /**
+   * Rebuilds the discography this state was captured from, as detached Artist and Album views.
+   *
+   * @return The discography, or nothing if the state was built without its content.
+   */
+  public Optional<SyncedDiscography> discography() {
+    if (columns == null) {
+      return Optional.empty();
+    }
+    return Optional.of(new SyncedDiscography(columns.artistView(), columns.albumViews()));
+  }
+
+  /**
+   * Gets the number of albums known for the artist.
+   *
+   * @return The size of the known collection ID set.
+   */
+  public int size() {
+    return collectionIds.length;
+  }
+}
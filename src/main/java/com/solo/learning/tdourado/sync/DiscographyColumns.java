@@ -0,0 +1,131 @@
+package com.solo.learning.tdourado.sync;
+
+import com.solo.learning.tdourado.cache.StringDictionary;
+import com.solo.learning.tdourado.persistence.domain.Album;
+import com.solo.learning.tdourado.persistence.domain.Artist;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar copy of a discography's content, one primitive or String array per Album attribute.
+ *
+ * <p>Rows follow the sorted collection IDs of the owning {@link ArtistSyncState}, whose array is
+ * shared rather than copied. Prices are unboxed, with NaN standing for a missing price, and IDs
+ * are unboxed, with {@link #NO_ID} standing for a missing ID. Currencies and genres are two-byte
+ * codes into the shared {@link StringDictionary}. Artist names and copyrights mostly repeat within
+ * a discography, so every row holding the same value points to a single String.
+ *
+ * <p>Artist names and copyrights are only shared within a discography, not across them: the same
+ * copyright held by several artists, or an artist name credited in another artist's discography,
+ * is stored once per discography. They do not go through the dictionary because a catalog holds
+ * far more distinct names and copyrights than its {@link StringDictionary#MAX_SIZE} codes.
+ *
+ * <p>Album and Artist objects are only built, as detached views, when the discography is read.
+ *
+ * @author tiberiusdourado
+ */
+final class DiscographyColumns {
+  /** Stands for a missing artist ID. */
+  static final int NO_ID = Integer.MIN_VALUE;
+
+  private final StringDictionary dictionary;
+
+  private final int artistId;
+  private final String artistName;
+  private final short artistGenre;
+
+  private final int[] collectionIds;
+  private final int[] artistIds;
+  private final String[] artistNames;
+  private final String[] collectionNames;
+  private final double[] prices;
+  private final short[] currencies;
+  private final short[] genres;
+  private final String[] copyrights;
+
+  private DiscographyColumns(
+      StringDictionary dictionary, Artist artist, int[] collectionIds, int rows) {
+    this.dictionary = dictionary;
+    this.artistId = artist.getArtistId();
+    this.artistName = artist.getArtistName();
+    this.artistGenre = dictionary.encode(artist.getPrimaryGenreName());
+    this.collectionIds = collectionIds;
+    this.artistIds = new int[rows];
+    this.artistNames = new String[rows];
+    this.collectionNames = new String[rows];
+    this.prices = new double[rows];
+    this.currencies = new short[rows];
+    this.genres = new short[rows];
+    this.copyrights = new String[rows];
+  }
+
+  /**
+   * Encodes a discography into columns.
+   *
+   * @param artist The artist the discography belongs to.
+   * @param collectionIds The sorted collection IDs of the albums, kept by reference.
+   * @param albums The albums, in the order of their collection IDs.
+   * @param dictionary The dictionary encoding currencies and genres.
+   * @return The discography's columns.
+   * @throws IllegalStateException If the dictionary is full.
+   */
+  static DiscographyColumns of(
+      Artist artist, int[] collectionIds, Album[] albums, StringDictionary dictionary) {
+    DiscographyColumns columns =
+        new DiscographyColumns(dictionary, artist, collectionIds, albums.length);
+
+    Map<String, String> shared = new HashMap<>();
+    if (columns.artistName != null) {
+      shared.put(columns.artistName, columns.artistName);
+    }
+    for (int row = 0; row < albums.length; row++) {
+      Album album = albums[row];
+      columns.artistIds[row] = album.getArtistId() == null ? NO_ID : album.getArtistId();
+      columns.artistNames[row] = share(shared, album.getArtistName());
+      columns.collectionNames[row] = album.getCollectionName();
+      columns.prices[row] =
+          album.getCollectionPrice() == null ? Double.NaN : album.getCollectionPrice();
+      columns.currencies[row] = dictionary.encode(album.getCurrency());
+      columns.genres[row] = dictionary.encode(album.getPrimaryGenreName());
+      columns.copyrights[row] = share(shared, album.getCopyright());
+    }
+    return columns;
+  }
+
+  /**
+   * Builds a detached view of the artist.
+   *
+   * @return A new Artist that is not persisted.
+   */
+  Artist artistView() {
+    return new Artist(artistId, artistName, dictionary.decode(artistGenre));
+  }
+
+  /**
+   * Builds detached views of the albums.
+   *
+   * @return New Albums that are not persisted, ordered by collection ID.
+   */
+  List<Album> albumViews() {
+    List<Album> albums = new ArrayList<>(collectionIds.length);
+    for (int row = 0; row < collectionIds.length; row++) {
+      albums.add(
+          new Album(
+              artistIds[row] == NO_ID ? null : artistIds[row],
+              collectionIds[row],
+              artistNames[row],
+              collectionNames[row],
+              Double.isNaN(prices[row]) ? null : prices[row],
+              dictionary.decode(currencies[row]),
+              dictionary.decode(genres[row]),
+              copyrights[row]));
+    }
+    return albums;
+  }
+
+  private static String share(Map<String, String> shared, String value) {
+    return value == null ? null : shared.computeIfAbsent(value, key -> key);
+  }
+}
@@ -0,0 +1,86 @@
+package com.solo.learning.tdourado.sync;
+
+import java.util.Arrays;
+
+/**
+ * Result of comparing an upstream discography against the previously synced one.
+ *
+ * @author tiberiusdourado
+ */
+public final class DiscographyDiff {
+  private final boolean artistChanged;
+  private final int[] added;
+  private final int[] changed;
+  private final int[] removed;
+
+  DiscographyDiff(boolean artistChanged, int[] added, int[] changed, int[] removed) {
+    this.artistChanged = artistChanged;
+    this.added = added;
+    this.changed = changed;
+    this.removed = removed;
+  }
+
+  /**
+   * Tells whether the artist's own attributes differ from the previous sync.
+   *
+   * @return True if the artist needs to be written again.
+   */
+  public boolean isArtistChanged() {
+    return artistChanged;
+  }
+
+  /**
+   * Gets the collection IDs of albums that were not known before.
+   *
+   * @return A sorted copy of the added collection IDs.
+   */
+  public int[] getAdded() {
+    return added.clone();
+  }
+
+  /**
+   * Gets the collection IDs of known albums whose content changed upstream.
+   *
+   * @return A sorted copy of the changed collection IDs.
+   */
+  public int[] getChanged() {
+    return changed.clone();
+  }
+
+  /**
+   * Gets the collection IDs of known albums that are no longer in the upstream discography.
+   *
+   * @return A sorted copy of the removed collection IDs.
+   */
+  public int[] getRemoved() {
+    return removed.clone();
+  }
+
+  /**
+   * Gets the collection IDs that have to be written, i.e. the added and the changed ones.
+   *
+   * @return A sorted array with the added and changed collection IDs.
+   */
+  public int[] getUpserts() {
+    int[] upserts = Arrays.copyOf(added, added.length + changed.length);
+    System.arraycopy(changed, 0, upserts, added.length, changed.length);
+    Arrays.sort(upserts);
+    return upserts;
+  }
+
+  /**
+   * Tells whether nothing at all changed since the previous sync.
+   *
+   * @return True if there is nothing to write, invalidate or announce.
+   */
+  public boolean isEmpty() {
+    return !artistChanged && added.length == 0 && changed.length == 0 && removed.length == 0;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "DiscographyDiff[artistChanged=%s, added=%d, changed=%d, removed=%d]",
+        artistChanged, added.length, changed.length, removed.length);
+  }
+}
@@ -0,0 +1,422 @@
+package com.solo.learning.tdourado.sync;
+
+import com.solo.learning.tdourado.cache.StorefrontPartitionedCache;
+import com.solo.learning.tdourado.cache.StringDictionary;
+import com.solo.learning.tdourado.persistence.domain.Album;
+import com.solo.learning.tdourado.persistence.domain.Artist;
+import com.solo.learning.tdourado.persistence.repository.AlbumRepository;
+import com.solo.learning.tdourado.persistence.repository.ArtistRepository;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps persisted discographies in line with iTunes, one artist and storefront at a time.
+ *
+ * <p>Every artist has an {@link ArtistSyncState} per storefront (country), holding the collection
+ * IDs and content hashes seen on its last sync. A refresh diffs the upstream lookup against that
+ * state, so only albums that were added or changed are upserted, and only albums that were added,
+ * changed or removed get an {@link AlbumChangeEvent}. Listeners of those events are responsible
+ * for invalidating caches.
+ *
+ * <p>Writes go through Hibernate, so the second-level cache entries of the written Albums and
+ * Artists are updated in place and the cached catalog queries over their tables are invalidated on
+ * commit. Unchanged albums are never written, so a refresh leaves their cache entries alone.
+ *
+ * <p>The state lives in memory, in an LRU cache with a capacity per storefront. The first sync of
+ * an artist after a restart or an eviction seeds it from the persisted rows of the artist and of
+ * the albums iTunes returned, so albums stored before are not written again, and albums iTunes
+ * dropped in the meantime are still seen as removed.
+ *
+ * <p>The rows of removed albums are deleted, unless they belong to another artist (e.g. a
+ * compilation the artist appears on), which only stop being part of this discography.
+ *
+ * <p>After a sync the state also keeps the discography's content in a compact columnar form, with
+ * currencies and genres encoded through a shared {@link StringDictionary}, so synced discographies
+ * can be served from memory.
+ *
+ * <p>Syncs of the same artist and storefront are serialized by a striped lock, held until their
+ * transaction completes, and a sync's state only replaces the previous one once its transaction
+ * has committed. A sync that fails to commit therefore leaves the previous state in place, and the
+ * next sync writes its albums again.
+ *
+ * @author tiberiusdourado
+ */
+@Slf4j
+@Service
+public class DiscographySyncService {
+
+  // Number of sync locks, a power of two.
+  private static final int LOCK_STRIPES = 64;
+
+  private final AlbumRepository albumRepository;
+  private final ArtistRepository artistRepository;
+  private final ApplicationEventPublisher eventPublisher;
+
+  // Sync state per storefront and iTunes artist ID.
+  private final StorefrontPartitionedCache<ArtistSyncState> states;
+
+  // Encodes the currencies and genres of every in-memory discography.
+  private final StringDictionary dictionary;
+
+  // Serialize the syncs of an artist and storefront, until their transaction completes.
+  private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+  /**
+   * Constructor for the DiscographySyncService.
+   *
+   * @param albumRepository Repository where Albums are upserted.
+   * @param artistRepository Repository where Artists are upserted.
+   * @param eventPublisher Publisher for the AlbumChangeEvents.
+   * @param states Cache holding the sync states per storefront.
+   * @param dictionary Dictionary encoding the currencies and genres of the synced discographies.
+   */
+  public DiscographySyncService(
+      AlbumRepository albumRepository,
+      ArtistRepository artistRepository,
+      ApplicationEventPublisher eventPublisher,
+      StorefrontPartitionedCache<ArtistSyncState> states,
+      StringDictionary dictionary) {
+    this.albumRepository = albumRepository;
+    this.artistRepository = artistRepository;
+    this.eventPublisher = eventPublisher;
+    this.states = states;
+    this.dictionary = dictionary;
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      locks[i] = new ReentrantLock();
+    }
+  }
+
+  /**
+   * Syncs an artist's discography, as returned by iTunes, against the previously known state.
+   *
+   * @param storefront The storefront (country code) the discography was fetched from.
+   * @param artist The artist returned by the iTunes lookup.
+   * @param upstreamAlbums The albums returned by the iTunes lookup.
+   * @return What changed since the previous sync.
+   */
+  @Transactional
+  public DiscographyDiff sync(
+      final @NotNull String storefront,
+      final @NotNull Artist artist,
+      final @NotNull List<Album> upstreamAlbums) {
+    final int artistId = artist.getArtistId();
+    ReentrantLock lock = lockOf(storefront, artistId);
+    lock.lock();
+    boolean synced = false;
+    try {
+      DiscographyDiff diff = syncLocked(storefront, artistId, artist, upstreamAlbums);
+      synced = true;
+      return diff;
+    } finally {
+      // A failed sync rolls back, so there is nothing left to wait for.
+      if (!synced || !releaseOnCompletion(lock)) {
+        lock.unlock();
+      }
+    }
+  }
+
+  private DiscographyDiff syncLocked(
+      String storefront, int artistId, Artist artist, List<Album> upstreamAlbums) {
+    ArtistSyncState previous = states.get(storefront, artistId);
+    Map<Integer, Album> stored = null;
+    if (previous == null) {
+      stored = findStored(storefront, upstreamAlbums);
+      for (Album album : albumRepository.findByStorefrontAndArtistId(storefront, artistId)) {
+        stored.putIfAbsent(album.getCollectionId(), album);
+      }
+      previous =
+          ArtistSyncState.of(
+              artistRepository.findFirstByStorefrontAndArtistId(storefront, artistId).orElse(null),
+              stored.values());
+    }
+
+    ArtistSyncState current = ArtistSyncState.capture(artist, upstreamAlbums, dictionary);
+    DiscographyDiff diff = current.diffAgainst(previous);
+    if (diff.isEmpty()) {
+      log.debug("Discography of artist ID {} in {} is unchanged", artistId, storefront);
+      onCommit(() -> states.put(storefront, artistId, current));
+      return diff;
+    }
+
+    if (diff.isArtistChanged()) {
+      upsertArtist(storefront, artist);
+    }
+
+    int[] upserts = diff.getUpserts();
+    Map<Integer, Album> upstreamById = new HashMap<>();
+    Map<Integer, Album> overwritten = new HashMap<>();
+    Map<Integer, Long> rowIds = new HashMap<>();
+    if (upserts.length > 0) {
+      for (Album album : upstreamAlbums) {
+        if (album.getCollectionId() != null) {
+          upstreamById.put(album.getCollectionId(), album);
+        }
+      }
+      overwritten.putAll(upsertAlbums(storefront, upserts, upstreamById, stored, rowIds));
+    }
+    if (diff.getRemoved().length > 0) {
+      overwritten.putAll(deleteAlbums(storefront, artistId, diff.getRemoved(), stored, rowIds));
+    }
+
+    publish(storefront, artistId, diff, overwritten, upstreamById, rowIds);
+
+    onCommit(() -> states.put(storefront, artistId, current));
+    log.info("Synced discography of artist ID {} in {}: {}", artistId, storefront, diff);
+    return diff;
+  }
+
+  /**
+   * Reads a discography back the way its last sync stored it, without calling iTunes. Only
+   * discographies whose sync state is still in memory are returned, which keeps this a cache-hit
+   * path: the state rebuilds them from its columns, or, if it was built without its content, gives
+   * the collection IDs to read from the database (mostly from the second-level cache).
+   *
+   * @param storefront The storefront (country code).
+   * @param artistId The artist's iTunes ID.
+   * @return The stored discography, if the artist was synced in this storefront and not evicted.
+   */
+  @Transactional(readOnly = true)
+  public Optional<SyncedDiscography> findSynced(final @NotNull String storefront, int artistId) {
+    ArtistSyncState state = states.get(storefront, artistId);
+    if (state == null) {
+      return Optional.empty();
+    }
+    Optional<SyncedDiscography> inMemory = state.discography();
+    if (inMemory.isPresent()) {
+      return inMemory;
+    }
+
+    Optional<Artist> artist =
+        artistRepository.findFirstByStorefrontAndArtistId(storefront, artistId);
+    if (artist.isEmpty()) {
+      return Optional.empty();
+    }
+
+    List<Album> albums = new ArrayList<>(state.size());
+    if (state.size() > 0) {
+      List<Integer> collectionIds = new ArrayList<>(state.size());
+      for (int collectionId : state.collectionIds()) {
+        collectionIds.add(collectionId);
+      }
+      albums.addAll(albumRepository.findByStorefrontAndCollectionIdIn(storefront, collectionIds));
+      albums.sort(Comparator.comparing(Album::getCollectionId));
+    }
+    return Optional.of(new SyncedDiscography(artist.get(), albums));
+  }
+
+  private void upsertArtist(String storefront, Artist artist) {
+    Artist target =
+        artistRepository
+            .findFirstByStorefrontAndArtistId(storefront, artist.getArtistId())
+            .orElseGet(() -> new Artist(artist.getArtistId(), null, null));
+    target.setStorefront(storefront);
+    target.setArtistName(artist.getArtistName());
+    target.setPrimaryGenreName(artist.getPrimaryGenreName());
+    artistRepository.save(target);
+  }
+
+  /**
+   * Runs an action in a read-only transaction while no sync is running, holding every sync lock:
+   * syncs started before it have completed, after-commit listeners included, and syncs starting
+   * during it wait for it. The transaction begins before the locks are taken, so the action never
+   * waits for a database connection held by a sync that waits for a lock.
+   *
+   * @param action The action to run.
+   */
+  @Transactional(readOnly = true)
+  public void runExclusively(final @NotNull Runnable action) {
+    for (ReentrantLock lock : locks) {
+      lock.lock();
+    }
+    try {
+      action.run();
+    } finally {
+      for (int i = LOCK_STRIPES - 1; i >= 0; i--) {
+        locks[i].unlock();
+      }
+    }
+  }
+
+  /**
+   * Writes the given albums, updating their stored rows in place when they have one.
+   *
+   * @param rowIds Filled with the album IDs of the written rows, by collection ID.
+   * @return Detached copies of the stored content that was overwritten, by collection ID.
+   */
+  private Map<Integer, Album> upsertAlbums(
+      String storefront,
+      int[] upserts,
+      Map<Integer, Album> upstreamById,
+      Map<Integer, Album> stored,
+      Map<Integer, Long> rowIds) {
+    List<Album> changedUpstream = new ArrayList<>(upserts.length);
+    for (int collectionId : upserts) {
+      changedUpstream.add(upstreamById.get(collectionId));
+    }
+    Map<Integer, Album> existing =
+        stored != null ? stored : findStored(storefront, changedUpstream);
+
+    List<Album> toSave = new ArrayList<>(changedUpstream.size());
+    Map<Integer, Album> overwritten = new HashMap<>();
+    for (Album album : changedUpstream) {
+      Album target = existing.get(album.getCollectionId());
+      if (target == null) {
+        target = new Album();
+      } else {
+        overwritten.put(album.getCollectionId(), detached(target));
+      }
+      target.copyContentFrom(album);
+      target.setStorefront(storefront);
+      toSave.add(target);
+    }
+    albumRepository.saveAll(toSave);
+    // New rows got their album ID when they were persisted.
+    for (Album target : toSave) {
+      rowIds.put(target.getCollectionId(), target.getAlbumId());
+    }
+    return overwritten;
+  }
+
+  /**
+   * Deletes the stored rows of the given albums that belong to the artist.
+   *
+   * @param rowIds Filled with the album IDs of the deleted rows, by collection ID.
+   * @return Detached copies of the deleted content, by collection ID.
+   */
+  private Map<Integer, Album> deleteAlbums(
+      String storefront,
+      int artistId,
+      int[] removed,
+      Map<Integer, Album> stored,
+      Map<Integer, Long> rowIds) {
+    List<Integer> collectionIds = new ArrayList<>(removed.length);
+    for (int collectionId : removed) {
+      collectionIds.add(collectionId);
+    }
+    Iterable<Album> candidates =
+        stored != null
+            ? stored.values()
+            : albumRepository.findByStorefrontAndCollectionIdIn(storefront, collectionIds);
+
+    List<Album> toDelete = new ArrayList<>(removed.length);
+    Map<Integer, Album> deleted = new HashMap<>();
+    for (Album album : candidates) {
+      if (collectionIds.contains(album.getCollectionId())
+          && Integer.valueOf(artistId).equals(album.getArtistId())) {
+        toDelete.add(album);
+        deleted.put(album.getCollectionId(), detached(album));
+        rowIds.put(album.getCollectionId(), album.getAlbumId());
+      }
+    }
+    if (!toDelete.isEmpty()) {
+      albumRepository.deleteAll(toDelete);
+    }
+    return deleted;
+  }
+
+  private Map<Integer, Album> findStored(String storefront, List<Album> albums) {
+    List<Integer> collectionIds = new ArrayList<>(albums.size());
+    for (Album album : albums) {
+      if (album.getCollectionId() != null) {
+        collectionIds.add(album.getCollectionId());
+      }
+    }
+
+    Map<Integer, Album> stored = new HashMap<>();
+    if (!collectionIds.isEmpty()) {
+      for (Album album :
+          albumRepository.findByStorefrontAndCollectionIdIn(storefront, collectionIds)) {
+        stored.put(album.getCollectionId(), album);
+      }
+    }
+    return stored;
+  }
+
+  private void publish(
+      String storefront,
+      int artistId,
+      DiscographyDiff diff,
+      Map<Integer, Album> overwritten,
+      Map<Integer, Album> upstreamById,
+      Map<Integer, Long> rowIds) {
+    for (AlbumChangeEvent.Type type : AlbumChangeEvent.Type.values()) {
+      int[] collectionIds =
+          switch (type) {
+            case ADDED -> diff.getAdded();
+            case CHANGED -> diff.getChanged();
+            case REMOVED -> diff.getRemoved();
+          };
+      for (int collectionId : collectionIds) {
+        // Removed albums are not upstream, so they come without new content.
+        Album after = upstreamById.get(collectionId);
+        eventPublisher.publishEvent(
+            new AlbumChangeEvent(
+                storefront,
+                artistId,
+                collectionId,
+                rowIds.get(collectionId),
+                type,
+                overwritten.get(collectionId),
+                after == null ? null : detached(after)));
+      }
+    }
+  }
+
+  private ReentrantLock lockOf(String storefront, int artistId) {
+    int hash = 31 * storefront.hashCode() + artistId;
+    return locks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+  }
+
+  /** Runs an action once the current transaction commits, or right away outside of one. */
+  private static void onCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+
+  /**
+   * Hands a sync lock over to the current transaction, which releases it once it completes, after
+   * the state was published and the after-commit listeners ran.
+   *
+   * @return Whether a transaction took the lock over.
+   */
+  private static boolean releaseOnCompletion(ReentrantLock lock) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return false;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            lock.unlock();
+          }
+        });
+    return true;
+  }
+
+  private static Album detached(Album album) {
+    Album copy = new Album();
+    copy.copyContentFrom(album);
+    return copy;
+  }
+}
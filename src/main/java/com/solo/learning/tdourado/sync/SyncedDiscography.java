@@ -0,0 +1,25 @@
+package com.solo.learning.tdourado.sync;
+
+import com.solo.learning.tdourado.persistence.domain.Album;
+import com.solo.learning.tdourado.persistence.domain.Artist;
+import java.util.List;
+
+/**
+ * A discography as it was stored by its last sync, read back without calling iTunes.
+ *
+ * @param artist The stored artist.
+ * @param albums The stored albums, ordered by collection ID.
+ * @author tiberiusdourado
+ */
+public record SyncedDiscography(Artist artist, List<Album> albums) {
+
+  /**
+   * Canonical constructor keeping an unmodifiable copy of the albums.
+   *
+   * @param artist The stored artist.
+   * @param albums The stored albums, ordered by collection ID.
+   */
+  public SyncedDiscography {
+    albums = List.copyOf(albums);
+  }
+}
@@ -0,0 +1,10 @@
+-- Secondary indexes for the catalog read paths. The keyset (seek) queries filter on one column and
+-- order by the primary key, so each index carries the primary key as its last column: a page is
+-- then a single index range scan, no matter how deep into the catalog it starts.
+
+CREATE INDEX idx_album_artist_id ON album (artist_id, album_id);
+CREATE INDEX idx_album_primary_genre_name ON album (primary_genre_name, album_id);
+CREATE UNIQUE INDEX idx_album_collection_id ON album (collection_id);
+
+CREATE UNIQUE INDEX idx_artist_artist_id ON artist (artist_id);
+CREATE INDEX idx_artist_artist_name ON artist (artist_name, artist_unique_id);
@@ -0,0 +1,19 @@
+-- Albums and artists are stored per iTunes storefront (country), since prices, currencies and
+-- names differ between storefronts. The catalog indexes get the storefront as leading column, so
+-- each storefront's listings remain a single ordered range scan.
+
+ALTER TABLE album ADD COLUMN storefront VARCHAR(2) DEFAULT 'US' NOT NULL;
+ALTER TABLE artist ADD COLUMN storefront VARCHAR(2) DEFAULT 'US' NOT NULL;
+
+DROP INDEX idx_album_artist_id;
+DROP INDEX idx_album_primary_genre_name;
+DROP INDEX idx_album_collection_id;
+DROP INDEX idx_artist_artist_id;
+DROP INDEX idx_artist_artist_name;
+
+CREATE INDEX idx_album_artist_id ON album (storefront, artist_id, album_id);
+CREATE INDEX idx_album_primary_genre_name ON album (storefront, primary_genre_name, album_id);
+CREATE UNIQUE INDEX idx_album_collection_id ON album (storefront, collection_id);
+
+CREATE UNIQUE INDEX idx_artist_artist_id ON artist (storefront, artist_id);
+CREATE INDEX idx_artist_artist_name ON artist (storefront, artist_name, artist_unique_id);
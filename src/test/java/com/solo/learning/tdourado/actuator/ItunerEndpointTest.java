@@ -0,0 +1,187 @@
+package com.solo.learning.tdourado.actuator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.github.benmanes.caffeine.cache.Policy;
+import com.solo.learning.tdourado.api.limit.AdaptiveConcurrencyLimiter;
+import com.solo.learning.tdourado.api.upstream.UpstreamMonitor;
+import com.solo.learning.tdourado.cache.StorefrontPartitionedCache;
+import com.solo.learning.tdourado.config.CatalogCacheProperties;
+import com.solo.learning.tdourado.config.ConcurrencyLimitProperties;
+import com.solo.learning.tdourado.config.UpstreamProperties;
+import com.solo.learning.tdourado.sync.ArtistSyncState;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+/** Unit tests for ItunerEndpoint, with mocked Hibernate and JCache internals. */
+@ExtendWith(MockitoExtension.class)
+class ItunerEndpointTest {
+
+  private static final String ALBUM_REGION = "catalog-album";
+
+  @Mock private EntityManagerFactory entityManagerFactory;
+  @Mock private SessionFactory sessionFactory;
+  @Mock private Statistics statistics;
+  @Mock private CacheRegionStatistics regionStatistics;
+  @Mock private org.hibernate.Cache hibernateCache;
+  @Mock private CacheManager cacheManager;
+  @Mock private Cache<Object, Object> jcache;
+  @Mock private com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeine;
+  @Mock private Policy<Object, Object> policy;
+  @Mock private Policy.Eviction<Object, Object> eviction;
+
+  private final StorefrontPartitionedCache<ArtistSyncState> syncStates =
+      new StorefrontPartitionedCache<>(storefront -> 10);
+  private final UpstreamMonitor upstreamMonitor = new UpstreamMonitor(new UpstreamProperties());
+  private final AdaptiveConcurrencyLimiter concurrencyLimiter =
+      new AdaptiveConcurrencyLimiter(new ConcurrencyLimitProperties());
+
+  private ItunerEndpoint endpoint;
+
+  @BeforeEach
+  void setUp() {
+    CatalogCacheProperties properties = new CatalogCacheProperties();
+    properties.getRegions().put(ALBUM_REGION, new CatalogCacheProperties.Region());
+    endpoint =
+        new ItunerEndpoint(
+            syncStates,
+            entityManagerFactory,
+            cacheManager,
+            properties,
+            upstreamMonitor,
+            concurrencyLimiter);
+  }
+
+  private void mockCaffeineRegion() {
+    when(cacheManager.getCache(ALBUM_REGION)).thenReturn(jcache);
+    when(jcache.unwrap(com.github.benmanes.caffeine.cache.Cache.class)).thenReturn(caffeine);
+    when(caffeine.policy()).thenReturn(policy);
+    when(policy.eviction()).thenReturn(Optional.of(eviction));
+  }
+
+  @Test
+  void report_shouldCoverSyncStatesCatalogCacheUpstreamAndLimiter() {
+    syncStates.put("US", 5468295, ArtistSyncState.EMPTY);
+    syncStates.get("US", 5468295);
+    when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+    when(sessionFactory.getStatistics()).thenReturn(statistics);
+    when(statistics.getCacheRegionStatistics(ALBUM_REGION)).thenReturn(regionStatistics);
+    when(regionStatistics.getHitCount()).thenReturn(3L);
+    when(regionStatistics.getMissCount()).thenReturn(1L);
+    when(regionStatistics.getPutCount()).thenReturn(4L);
+    mockCaffeineRegion();
+    when(caffeine.estimatedSize()).thenReturn(4L);
+    when(eviction.getMaximum()).thenReturn(50000L);
+
+    ItunerEndpoint.ItunerReport report = endpoint.report();
+
+    assertEquals(
+        new StorefrontPartitionedCache.PartitionStats(1, 1, 10, 1, 0, List.of(5468295)),
+        report.syncStates().get("US"));
+    assertEquals(
+        new ItunerEndpoint.RegionReport(4L, 50000L, 3, 1, 4, 0.75),
+        report.catalogCache().get(ALBUM_REGION));
+    assertEquals(Duration.ofSeconds(10), report.upstream().timeout());
+    assertEquals(new ItunerEndpoint.LimiterReport(20, 0, 0, 1), report.limiter());
+  }
+
+  @Test
+  void report_whenRegionNeverUsed_shouldLeaveSizeAndHitRatioOut() {
+    when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+    when(sessionFactory.getStatistics()).thenReturn(statistics);
+
+    ItunerEndpoint.RegionReport region = endpoint.report().catalogCache().get(ALBUM_REGION);
+
+    assertNull(region.size());
+    assertNull(region.hitRatio());
+    assertEquals(0, region.hits());
+  }
+
+  @Test
+  void flush_shouldClearTheSyncStatesOrEvictTheNamedRegion() {
+    syncStates.put("US", 5468295, ArtistSyncState.EMPTY);
+    endpoint.flush(ItunerEndpoint.SYNC_STATE);
+    assertEquals(0, syncStates.size("US"));
+
+    when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+    when(sessionFactory.getCache()).thenReturn(hibernateCache);
+    endpoint.flush(ALBUM_REGION);
+    verify(hibernateCache).evictRegion(ALBUM_REGION);
+  }
+
+  @Test
+  void flush_whenCacheUnknown_shouldRejectTheRequest() {
+    assertThrows(InvalidEndpointRequestException.class, () -> endpoint.flush("catalog-track"));
+    verifyNoInteractions(entityManagerFactory);
+  }
+
+  @Test
+  void flushAll_shouldClearEverything() {
+    syncStates.put("GB", 5468295, ArtistSyncState.EMPTY);
+    when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+    when(sessionFactory.getCache()).thenReturn(hibernateCache);
+
+    endpoint.flushAll();
+
+    assertEquals(0, syncStates.size("GB"));
+    verify(hibernateCache).evictAllRegions();
+  }
+
+  @Test
+  void resize_shouldResizeAStorefrontPartitionOrACatalogRegion() {
+    endpoint.resize(ItunerEndpoint.SYNC_STATE, "US", 25);
+    assertEquals(25, syncStates.stats(0).get("US").capacity());
+
+    mockCaffeineRegion();
+    endpoint.resize(ALBUM_REGION, null, 1000);
+    verify(eviction).setMaximum(1000);
+  }
+
+  @Test
+  void resize_whenRequestIncomplete_shouldRejectIt() {
+    assertThrows(
+        InvalidEndpointRequestException.class,
+        () -> endpoint.resize(ItunerEndpoint.SYNC_STATE, null, 25));
+    assertThrows(
+        InvalidEndpointRequestException.class,
+        () -> endpoint.resize(ItunerEndpoint.SYNC_STATE, "USA", 25));
+    assertThrows(
+        InvalidEndpointRequestException.class, () -> endpoint.resize(ALBUM_REGION, null, 0));
+  }
+
+  @Test
+  void resize_whenStorefrontIsLowerCase_shouldResizeTheUpperCasePartition() {
+    endpoint.resize(ItunerEndpoint.SYNC_STATE, "gb", 25);
+
+    assertEquals(25, syncStates.stats(0).get("GB").capacity());
+    assertNull(syncStates.stats(0).get("gb"));
+  }
+
+  @Test
+  void configure_shouldChangeTheUpstreamTimeout() {
+    endpoint.configure(Duration.ofSeconds(3));
+    assertEquals(Duration.ofSeconds(3), upstreamMonitor.getTimeout());
+
+    assertThrows(
+        InvalidEndpointRequestException.class, () -> endpoint.configure(Duration.ofSeconds(-1)));
+    assertEquals(Duration.ofSeconds(3), upstreamMonitor.getTimeout());
+  }
+}
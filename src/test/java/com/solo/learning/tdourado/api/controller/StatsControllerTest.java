@@ -0,0 +1,124 @@
+package com.solo.learning.tdourado.api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import com.solo.learning.tdourado.api.model.GenreStatsResponse;
+import com.solo.learning.tdourado.api.model.PriceStatsResponse;
+import com.solo.learning.tdourado.cache.StringDictionary;
+import com.solo.learning.tdourado.persistence.domain.Album;
+import com.solo.learning.tdourado.persistence.repository.AlbumRepository;
+import com.solo.learning.tdourado.stats.CatalogStatistics;
+import com.solo.learning.tdourado.stats.CatalogStatistics.GenreCount;
+import com.solo.learning.tdourado.stats.PriceSketch;
+import com.solo.learning.tdourado.sync.DiscographySyncService;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/** Unit tests for StatsController, over statistics filled from an empty table, then by hand. */
+@ExtendWith(MockitoExtension.class)
+class StatsControllerTest {
+
+  @Mock private AlbumRepository albumRepository;
+  @Mock private DiscographySyncService syncService;
+
+  private StatsController statsController;
+
+  @BeforeEach
+  void setUp() {
+    doAnswer(
+            invocation -> {
+              invocation.<Runnable>getArgument(0).run();
+              return null;
+            })
+        .when(syncService)
+        .runExclusively(any());
+    when(albumRepository.findByAlbumIdGreaterThanOrderByAlbumIdAsc(eq(0L), any()))
+        .thenReturn(new SliceImpl<>(List.of()));
+    CatalogStatistics statistics = unfilledStatistics();
+    statistics.onApplicationReady();
+    statistics.add("US", album("Dance", 9.99, "USD"));
+    statistics.add("US", album("Dance", 7.99, "USD"));
+    statistics.add("DE", album("Rock", 8.99, "EUR"));
+    statsController = new StatsController(statistics);
+  }
+
+  @Test
+  void genres_shouldCountTheAlbumsLargestGenreFirst() {
+    ResponseEntity<GenreStatsResponse> response = statsController.genres();
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals(3, response.getBody().albums());
+    assertEquals(
+        List.of(new GenreCount("Dance", 2), new GenreCount("Rock", 1)),
+        response.getBody().genres());
+  }
+
+  @Test
+  void prices_shouldSummarizeTheCurrency() {
+    ResponseEntity<PriceStatsResponse> response = statsController.prices("usd", null);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    PriceStatsResponse body = response.getBody();
+    assertNotNull(body);
+    assertEquals("USD", body.currency());
+    assertNull(body.country());
+    assertEquals(2, body.count());
+    assertEquals(8.99, body.mean(), 1e-9);
+    assertEquals(7.99, body.min(), 7.99 * PriceSketch.RELATIVE_ACCURACY);
+    assertEquals(9.99, body.max(), 9.99 * PriceSketch.RELATIVE_ACCURACY);
+    assertEquals(9.99, body.p99(), 9.99 * 0.01);
+  }
+
+  @Test
+  void prices_whenCountryGiven_shouldOnlySummarizeThatStorefront() {
+    ResponseEntity<PriceStatsResponse> response = statsController.prices("EUR", "de");
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals("DE", response.getBody().country());
+    assertEquals(1, response.getBody().count());
+  }
+
+  @Test
+  void prices_whenNothingStored_shouldReturnNotFound() {
+    assertEquals(HttpStatus.NOT_FOUND, statsController.prices("EUR", "US").getStatusCode());
+    assertEquals(HttpStatus.NOT_FOUND, statsController.prices("GBP", null).getStatusCode());
+  }
+
+  @Test
+  void prices_whenInvalidCodes_shouldReturnBadRequest() {
+    assertEquals(HttpStatus.BAD_REQUEST, statsController.prices("US$", null).getStatusCode());
+    assertEquals(HttpStatus.BAD_REQUEST, statsController.prices("USD", "USA").getStatusCode());
+  }
+
+  @Test
+  void statistics_whenNotFilledYet_shouldReturnServiceUnavailable() {
+    StatsController unfilled = new StatsController(unfilledStatistics());
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, unfilled.genres().getStatusCode());
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, unfilled.prices("USD", null).getStatusCode());
+  }
+
+  private CatalogStatistics unfilledStatistics() {
+    return new CatalogStatistics(
+        albumRepository, new StringDictionary(), syncService, Runnable::run);
+  }
+
+  private static Album album(String genre, Double price, String currency) {
+    return new Album(5468295, 1, "Daft Punk", "Homework", price, currency, genre, null);
+  }
+}
@@ -2,17 +2,36 @@ package com.solo.learning.tdourado.api.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.solo.learning.tdourado.api.limit.AdaptiveConcurrencyLimiter;
 import com.solo.learning.tdourado.api.model.AlbumResponse;
 import com.solo.learning.tdourado.api.model.ArtistResponse;
+import com.solo.learning.tdourado.api.upstream.UpstreamMonitor;
+import com.solo.learning.tdourado.config.ConcurrencyLimitProperties;
+import com.solo.learning.tdourado.config.UpstreamProperties;
+import com.solo.learning.tdourado.persistence.domain.Album;
+import com.solo.learning.tdourado.persistence.domain.Artist;
+import com.solo.learning.tdourado.sync.DiscographySyncService;
+import com.solo.learning.tdourado.sync.SyncedDiscography;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -34,6 +53,9 @@ class TunesControllerTest {
   private WebClient.RequestHeadersUriSpec mockRequestHeadersUriSpec;
   private WebClient.RequestHeadersSpec mockRequestHeadersSpec;
   private WebClient.ResponseSpec mockResponseSpec;
+  private DiscographySyncService mockDiscographySyncService;
+  private AdaptiveConcurrencyLimiter concurrencyLimiter;
+  private UpstreamMonitor upstreamMonitor;
 
   @BeforeEach
   void setUp() {
@@ -43,21 +65,32 @@ class TunesControllerTest {
     mockRequestHeadersUriSpec = mock(WebClient.RequestHeadersUriSpec.class);
     mockRequestHeadersSpec = mock(WebClient.RequestHeadersSpec.class);
     mockResponseSpec = mock(WebClient.ResponseSpec.class);
+    mockDiscographySyncService = mock(DiscographySyncService.class);
 
     // Configure mock builder
     when(mockWebClientBuilder.codecs(any())).thenReturn(mockWebClientBuilder);
     when(mockWebClientBuilder.build()).thenReturn(mockWebClient);
 
     // Initialize controller with mocked WebClient
-    tunesController = new TunesController(mockWebClientBuilder);
+    ConcurrencyLimitProperties limitProperties = new ConcurrencyLimitProperties();
+    limitProperties.setInitialLimit(1);
+    limitProperties.setMinLimit(1);
+    limitProperties.setMaxLimit(1);
+    concurrencyLimiter = new AdaptiveConcurrencyLimiter(limitProperties);
+    upstreamMonitor = new UpstreamMonitor(new UpstreamProperties());
+    tunesController =
+        new TunesController(
+            mockWebClientBuilder, mockDiscographySyncService, concurrencyLimiter, upstreamMonitor);
 
     // Set the URLs using reflection (normally injected by @Value)
     ReflectionTestUtils.setField(
         tunesController,
         "iTunesSearch",
-        "https://itunes.apple.com/search?term=%s&entity=musicArtist&limit=5");
+        "https://itunes.apple.com/search?term=%s&entity=musicArtist&limit=5&country=%s");
     ReflectionTestUtils.setField(
-        tunesController, "iTunesLookup", "https://itunes.apple.com/lookup?id=%s&entity=album");
+        tunesController,
+        "iTunesLookup",
+        "https://itunes.apple.com/lookup?id=%s&entity=album&country=%s");
   }
 
   @Test
@@ -79,13 +112,41 @@ class TunesControllerTest {
     when(mockRequestHeadersSpec.retrieve()).thenReturn(mockResponseSpec);
     when(mockResponseSpec.bodyToMono(String.class)).thenReturn(Mono.just(validJsonResponse));
 
-    ResponseEntity<AlbumResponse> response = tunesController.fetchAlbumsByArtistId("255286914");
+    ResponseEntity<AlbumResponse> response =
+        tunesController.fetchAlbumsByArtistId("255286914", "US");
 
     assertNotNull(response);
     assertEquals(200, response.getStatusCode().value());
     assertNotNull(response.getBody());
     assertEquals("Aishwarya Rai Bachchan", response.getBody().getArtist().getArtistName());
     assertEquals(1, response.getBody().getResults().size()); // Artist removed from results
+    verify(mockDiscographySyncService).sync(eq("US"), any(Artist.class), anyList());
+  }
+
+  @Test
+  void fetchAlbumsByArtistIdTest_whenSyncFails_shouldStillReturnOkStatus() {
+    String validJsonResponse =
+        """
+                {
+                 "resultCount":2,
+                 "results": [
+                {"wrapperType":"artist", "artistName":"Daft Punk", "artistId":5468295, "primaryGenreName":"Dance"},
+                {"wrapperType":"collection", "artistId":5468295, "collectionId":617154241, "artistName":"Daft Punk", "collectionName":"Random Access Memories", "collectionPrice":11.99, "currency":"USD", "primaryGenreName":"Pop"}]
+                }
+                """;
+
+    when(mockWebClient.get()).thenReturn(mockRequestHeadersUriSpec);
+    when(mockRequestHeadersUriSpec.uri(anyString())).thenReturn(mockRequestHeadersSpec);
+    when(mockRequestHeadersSpec.retrieve()).thenReturn(mockResponseSpec);
+    when(mockResponseSpec.bodyToMono(String.class)).thenReturn(Mono.just(validJsonResponse));
+    when(mockDiscographySyncService.sync(anyString(), any(Artist.class), anyList()))
+        .thenThrow(new DataAccessResourceFailureException("Database is down"));
+
+    ResponseEntity<AlbumResponse> response = tunesController.fetchAlbumsByArtistId("5468295", "US");
+
+    assertNotNull(response);
+    assertEquals(200, response.getStatusCode().value());
+    assertEquals(1, response.getBody().getResults().size());
   }
 
   @Test
@@ -100,7 +161,7 @@ class TunesControllerTest {
             Mono.error(WebClientResponseException.create(404, "Not Found", null, null, null)));
 
     ResponseEntity<AlbumResponse> badRequestEntity =
-        tunesController.fetchAlbumsByArtistId("1831534");
+        tunesController.fetchAlbumsByArtistId("1831534", "US");
 
     assertNotNull(badRequestEntity);
     assertEquals(400, badRequestEntity.getStatusCode().value());
@@ -126,7 +187,7 @@ class TunesControllerTest {
     when(mockRequestHeadersSpec.retrieve()).thenReturn(mockResponseSpec);
     when(mockResponseSpec.bodyToMono(String.class)).thenReturn(Mono.just(validJsonResponse));
 
-    ResponseEntity<ArtistResponse> response = tunesController.fetchArtistsByName("Daft Punk");
+    ResponseEntity<ArtistResponse> response = tunesController.fetchArtistsByName("Daft Punk", "US");
 
     assertNotNull(response);
     assertEquals(200, response.getStatusCode().value());
@@ -148,7 +209,7 @@ class TunesControllerTest {
                 WebClientResponseException.create(400, "Bad Request", null, null, null)));
 
     ResponseEntity<ArtistResponse> badRequestEntity =
-        tunesController.fetchArtistsByName("waaahhhhhhhhhhhhhhhhhh");
+        tunesController.fetchArtistsByName("waaahhhhhhhhhhhhhhhhhh", "US");
 
     assertNotNull(badRequestEntity);
     assertEquals(400, badRequestEntity.getStatusCode().value());
@@ -170,7 +231,8 @@ class TunesControllerTest {
     when(mockRequestHeadersSpec.retrieve()).thenReturn(mockResponseSpec);
     when(mockResponseSpec.bodyToMono(String.class)).thenReturn(Mono.just(emptyResultsJson));
 
-    ResponseEntity<AlbumResponse> response = tunesController.fetchAlbumsByArtistId("999999999");
+    ResponseEntity<AlbumResponse> response =
+        tunesController.fetchAlbumsByArtistId("999999999", "US");
 
     assertNotNull(response);
     assertEquals(200, response.getStatusCode().value());
@@ -186,7 +248,7 @@ class TunesControllerTest {
     when(mockRequestHeadersSpec.retrieve()).thenReturn(mockResponseSpec);
     when(mockResponseSpec.bodyToMono(String.class)).thenReturn(Mono.just(invalidJson));
 
-    ResponseEntity<ArtistResponse> response = tunesController.fetchArtistsByName("test");
+    ResponseEntity<ArtistResponse> response = tunesController.fetchArtistsByName("test", "US");
 
     assertNotNull(response);
     assertEquals(400, response.getStatusCode().value());
@@ -200,7 +262,7 @@ class TunesControllerTest {
     when(mockResponseSpec.bodyToMono(String.class))
         .thenReturn(Mono.error(new RuntimeException("Unexpected error")));
 
-    ResponseEntity<AlbumResponse> response = tunesController.fetchAlbumsByArtistId("123");
+    ResponseEntity<AlbumResponse> response = tunesController.fetchAlbumsByArtistId("123", "US");
 
     assertNotNull(response);
     assertEquals(500, response.getStatusCode().value());
@@ -214,7 +276,7 @@ class TunesControllerTest {
     when(mockResponseSpec.bodyToMono(String.class))
         .thenReturn(Mono.error(new NullPointerException("Unexpected null")));
 
-    ResponseEntity<ArtistResponse> response = tunesController.fetchArtistsByName("artist");
+    ResponseEntity<ArtistResponse> response = tunesController.fetchArtistsByName("artist", "US");
 
     assertNotNull(response);
     assertEquals(500, response.getStatusCode().value());
@@ -229,9 +291,163 @@ class TunesControllerTest {
     when(mockRequestHeadersSpec.retrieve()).thenReturn(mockResponseSpec);
     when(mockResponseSpec.bodyToMono(String.class)).thenReturn(Mono.just(invalidAlbumJson));
 
-    ResponseEntity<AlbumResponse> response = tunesController.fetchAlbumsByArtistId("123");
+    ResponseEntity<AlbumResponse> response = tunesController.fetchAlbumsByArtistId("123", "US");
 
     assertNotNull(response);
     assertEquals(400, response.getStatusCode().value());
   }
+
+  @Test
+  void fetchAlbumsByArtistIdTest_whenCountryGiven_shouldQueryAndSyncThatStorefront() {
+    String validJsonResponse =
+        """
+                {
+                 "resultCount":1,
+                 "results": [
+                {"wrapperType":"artist", "artistName":"Daft Punk", "artistId":5468295, "primaryGenreName":"Dance"}]
+                }
+                """;
+
+    when(mockWebClient.get()).thenReturn(mockRequestHeadersUriSpec);
+    when(mockRequestHeadersUriSpec.uri(
+            "https://itunes.apple.com/lookup?id=5468295&entity=album&country=GB"))
+        .thenReturn(mockRequestHeadersSpec);
+    when(mockRequestHeadersSpec.retrieve()).thenReturn(mockResponseSpec);
+    when(mockResponseSpec.bodyToMono(String.class)).thenReturn(Mono.just(validJsonResponse));
+
+    ResponseEntity<AlbumResponse> response =
+        tunesController.fetchAlbumsByArtistId("5468295", "gb");
+
+    assertEquals(200, response.getStatusCode().value());
+    verify(mockDiscographySyncService).sync(eq("GB"), any(Artist.class), anyList());
+  }
+
+  @Test
+  void fetchAlbumsByArtistIdTest_whenInvalidCountry_shouldReturnBadRequestWithoutCallingItunes() {
+    ResponseEntity<AlbumResponse> response =
+        tunesController.fetchAlbumsByArtistId("5468295", "USA");
+
+    assertEquals(400, response.getStatusCode().value());
+    verifyNoInteractions(mockWebClient, mockDiscographySyncService);
+  }
+
+  @Test
+  void fetchArtistsByNameTest_whenInvalidCountry_shouldReturnBadRequestWithoutCallingItunes() {
+    ResponseEntity<ArtistResponse> response = tunesController.fetchArtistsByName("Daft Punk", "1");
+
+    assertEquals(400, response.getStatusCode().value());
+    verifyNoInteractions(mockWebClient);
+  }
+
+  @Test
+  void fetchAlbumsByArtistIdTest_whenOverLimitAndSynced_shouldServeStoredDiscography() {
+    Album stored = albumOf(617154241, "Random Access Memories");
+    when(mockDiscographySyncService.findSynced("US", 5468295))
+        .thenReturn(
+            Optional.of(
+                new SyncedDiscography(
+                    new Artist(5468295, "Daft Punk", "Dance"), List.of(stored))));
+    assertTrue(concurrencyLimiter.tryAcquire().isPresent());
+
+    ResponseEntity<AlbumResponse> response = tunesController.fetchAlbumsByArtistId("5468295", "us");
+
+    assertEquals(200, response.getStatusCode().value());
+    assertEquals(2, response.getBody().getResultCount());
+    assertEquals("Daft Punk", response.getBody().getArtist().getArtistName());
+    assertEquals(
+        "Random Access Memories", response.getBody().getResults().get(0).getCollectionName());
+    verifyNoInteractions(mockWebClient);
+  }
+
+  @Test
+  void fetchAlbumsByArtistIdTest_whenOverLimitAndNotSynced_shouldShedWithRetryAfter() {
+    when(mockDiscographySyncService.findSynced("US", 5468295)).thenReturn(Optional.empty());
+    assertTrue(concurrencyLimiter.tryAcquire().isPresent());
+
+    ResponseEntity<AlbumResponse> response = tunesController.fetchAlbumsByArtistId("5468295", "US");
+
+    assertEquals(503, response.getStatusCode().value());
+    assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    assertNull(response.getBody());
+    verifyNoInteractions(mockWebClient);
+  }
+
+  @Test
+  void fetchArtistsByNameTest_whenOverLimit_shouldShedWithRetryAfter() {
+    assertTrue(concurrencyLimiter.tryAcquire().isPresent());
+
+    ResponseEntity<ArtistResponse> response = tunesController.fetchArtistsByName("Daft Punk", "US");
+
+    assertEquals(503, response.getStatusCode().value());
+    assertNotNull(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    assertEquals(1, concurrencyLimiter.getRejected());
+    verifyNoInteractions(mockWebClient);
+  }
+
+  @Test
+  void fetchArtistsByNameTest_whenRequestCompletes_shouldReleaseItsPermit() {
+    when(mockWebClient.get()).thenReturn(mockRequestHeadersUriSpec);
+    when(mockRequestHeadersUriSpec.uri(anyString())).thenReturn(mockRequestHeadersSpec);
+    when(mockRequestHeadersSpec.retrieve()).thenReturn(mockResponseSpec);
+    when(mockResponseSpec.bodyToMono(String.class))
+        .thenReturn(Mono.error(new RuntimeException("Unexpected error")));
+
+    tunesController.fetchArtistsByName("Daft Punk", "US");
+
+    assertEquals(0, concurrencyLimiter.getInFlight());
+    assertTrue(concurrencyLimiter.tryAcquire().isPresent());
+  }
+
+  @Test
+  void fetchAlbumsByArtistIdTest_whenSyncing_shouldHaveReleasedItsPermitAlready() {
+    String validJsonResponse =
+        """
+                {
+                 "resultCount":2,
+                 "results": [
+                {"wrapperType":"artist", "artistName":"Daft Punk", "artistId":5468295, "primaryGenreName":"Dance"},
+                {"wrapperType":"collection", "artistId":5468295, "collectionId":617154241, "artistName":"Daft Punk", "collectionName":"Random Access Memories", "collectionPrice":11.99, "currency":"USD", "primaryGenreName":"Pop"}]
+                }
+                """;
+    List<Integer> inFlightDuringSync = new ArrayList<>();
+
+    when(mockWebClient.get()).thenReturn(mockRequestHeadersUriSpec);
+    when(mockRequestHeadersUriSpec.uri(anyString())).thenReturn(mockRequestHeadersSpec);
+    when(mockRequestHeadersSpec.retrieve()).thenReturn(mockResponseSpec);
+    when(mockResponseSpec.bodyToMono(String.class)).thenReturn(Mono.just(validJsonResponse));
+    when(mockDiscographySyncService.sync(anyString(), any(Artist.class), anyList()))
+        .thenAnswer(
+            invocation -> {
+              inFlightDuringSync.add(concurrencyLimiter.getInFlight());
+              return null;
+            });
+
+    ResponseEntity<AlbumResponse> response = tunesController.fetchAlbumsByArtistId("5468295", "US");
+
+    assertEquals(200, response.getStatusCode().value());
+    assertEquals(List.of(0), inFlightDuringSync);
+  }
+
+  @Test
+  void fetchAlbumsByArtistIdTest_whenItunesAnswers_shouldRecordTheCall() {
+    when(mockWebClient.get()).thenReturn(mockRequestHeadersUriSpec);
+    when(mockRequestHeadersUriSpec.uri(anyString())).thenReturn(mockRequestHeadersSpec);
+    when(mockRequestHeadersSpec.retrieve()).thenReturn(mockResponseSpec);
+    when(mockResponseSpec.bodyToMono(String.class))
+        .thenReturn(Mono.just("{\"resultCount\":0, \"results\": []}"));
+
+    tunesController.fetchAlbumsByArtistId("999999999", "US");
+
+    UpstreamMonitor.Snapshot snapshot = upstreamMonitor.snapshot();
+    assertEquals(1, snapshot.succeeded());
+    assertEquals(1, snapshot.samples());
+    assertEquals(0, snapshot.inFlight());
+  }
+
+  private static Album albumOf(Integer collectionId, String collectionName) {
+    Album album = new Album();
+    ReflectionTestUtils.setField(album, "collectionId", collectionId);
+    ReflectionTestUtils.setField(album, "collectionName", collectionName);
+    return album;
+  }
 }
@@ -0,0 +1,129 @@
+package com.solo.learning.tdourado.api.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.solo.learning.tdourado.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for AdaptiveConcurrencyLimiter. */
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(100);
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(1000);
+
+  private static ConcurrencyLimitProperties properties(int initialLimit) {
+    ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+    properties.setInitialLimit(initialLimit);
+    properties.setMinLimit(2);
+    properties.setMaxLimit(50);
+    properties.setSmoothing(1.0);
+    return properties;
+  }
+
+  @Test
+  void tryAcquire_whenAtLimit_shouldRejectUntilAPermitIsReleased() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(2));
+
+    Optional<AdaptiveConcurrencyLimiter.Permit> first = limiter.tryAcquire();
+    Optional<AdaptiveConcurrencyLimiter.Permit> second = limiter.tryAcquire();
+
+    assertTrue(first.isPresent());
+    assertTrue(second.isPresent());
+    assertTrue(limiter.tryAcquire().isEmpty());
+    assertEquals(2, limiter.getInFlight());
+    assertEquals(1, limiter.getRejected());
+
+    first.get().release();
+    first.get().release();
+
+    assertEquals(1, limiter.getInFlight());
+    assertTrue(limiter.tryAcquire().isPresent());
+  }
+
+  @Test
+  void update_whenLatencyIsSteadyUnderLoad_shouldGrowTheLimit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(10));
+
+    for (int i = 0; i < 5; i++) {
+      limiter.update(FAST, 10, false);
+    }
+
+    assertTrue(limiter.getLimit() > 10, "limit was " + limiter.getLimit());
+  }
+
+  @Test
+  void update_whenBarelyLoaded_shouldKeepTheLimit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(10));
+
+    for (int i = 0; i < 5; i++) {
+      limiter.update(FAST, 1, false);
+    }
+
+    assertEquals(10, limiter.getLimit());
+  }
+
+  @Test
+  void update_whenLatencyClimbs_shouldShrinkTheLimit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(20));
+    for (int i = 0; i < 20; i++) {
+      limiter.update(FAST, 1, false);
+    }
+
+    for (int i = 0; i < 3; i++) {
+      limiter.update(SLOW, 20, false);
+    }
+
+    assertTrue(limiter.getLimit() < 20, "limit was " + limiter.getLimit());
+  }
+
+  @Test
+  void update_whenDropped_shouldBackOffDownToTheMinimum() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(10));
+
+    limiter.update(FAST, 10, true);
+    assertEquals(9, limiter.getLimit());
+
+    for (int i = 0; i < 50; i++) {
+      limiter.update(FAST, 10, true);
+    }
+    assertEquals(2, limiter.getLimit());
+  }
+
+  @Test
+  void retryAfterSeconds_shouldFollowTheDrainTimeWithinBounds() {
+    ConcurrencyLimitProperties properties = properties(2);
+    properties.setMaxRetryAfter(Duration.ofSeconds(5));
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+    assertEquals(1, limiter.retryAfterSeconds());
+
+    limiter.update(TimeUnit.SECONDS.toNanos(3), 0, false);
+    List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+    limiter.tryAcquire().ifPresent(permits::add);
+    limiter.tryAcquire().ifPresent(permits::add);
+    assertEquals(3, limiter.retryAfterSeconds());
+
+    limiter.update(TimeUnit.SECONDS.toNanos(60), 0, false);
+    assertEquals(5, limiter.retryAfterSeconds());
+  }
+
+  @Test
+  void bindTo_shouldPublishInFlightLimitAndRejected() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(1));
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    limiter.bindTo(registry);
+
+    limiter.tryAcquire();
+    limiter.tryAcquire();
+
+    assertEquals(1.0, registry.get("ituner.limiter.inflight").gauge().value());
+    assertEquals(1.0, registry.get("ituner.limiter.limit").gauge().value());
+    assertEquals(1.0, registry.get("ituner.limiter.rejected").functionCounter().count());
+  }
+}
@@ -0,0 +1,64 @@
+package com.solo.learning.tdourado.api.model;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Measures the encode/decode cost of an AlbumResponse in every format the API serves, against the
+ * indented JSON it used to serve.
+ *
+ * <p>Timings are a rough, single-threaded measurement logged for comparison only. Tagged {@code
+ * benchmark}, so it only runs with {@code mvn -Pbenchmark test}.
+ */
+@Slf4j
+@Tag("benchmark")
+class AlbumResponseEncodingBenchmarkTest {
+
+  private static final int WARMUP_ROUNDS = 2_000;
+  private static final int MEASURED_ROUNDS = 2_000;
+
+  @Test
+  void encodings_shouldBeTimed() {
+    AlbumResponse response = AlbumResponseEncodingTest.discography();
+
+    measure(
+        "indented JSON",
+        JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build(),
+        response);
+    measure("compact JSON", JsonMapper.builder().build(), response);
+    measure("CBOR", CBORMapper.builder().build(), response);
+    measure("Smile", SmileMapper.builder().build(), response);
+  }
+
+  private static void measure(String format, ObjectMapper mapper, AlbumResponse response) {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      mapper.readValue(mapper.writeValueAsBytes(response), AlbumResponse.class);
+    }
+
+    long encodeNanos = 0;
+    long decodeNanos = 0;
+    int size = 0;
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      long start = System.nanoTime();
+      byte[] bytes = mapper.writeValueAsBytes(response);
+      long encoded = System.nanoTime();
+      mapper.readValue(bytes, AlbumResponse.class);
+      decodeNanos += System.nanoTime() - encoded;
+      encodeNanos += encoded - start;
+      size = bytes.length;
+    }
+
+    log.info(
+        "{}: {} bytes, encode {} us/op, decode {} us/op",
+        format,
+        size,
+        encodeNanos / MEASURED_ROUNDS / 1_000,
+        decodeNanos / MEASURED_ROUNDS / 1_000);
+  }
+}
@@ -0,0 +1,66 @@
+package com.solo.learning.tdourado.api.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.solo.learning.tdourado.persistence.domain.Album;
+import com.solo.learning.tdourado.persistence.domain.Artist;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Compares the payload size of an AlbumResponse in every format the API serves, against the
+ * indented JSON it used to serve. Encoding times are measured by {@link
+ * AlbumResponseEncodingBenchmarkTest}.
+ */
+class AlbumResponseEncodingTest {
+
+  static final int ALBUMS = 200;
+
+  @Test
+  void encodings_shouldRoundTripAndBeSmallerThanIndentedJson() {
+    AlbumResponse response = discography();
+
+    int indentedJson =
+        size(JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build(), response);
+    int compactJson = size(JsonMapper.builder().build(), response);
+    int cbor = size(CBORMapper.builder().build(), response);
+    int smile = size(SmileMapper.builder().build(), response);
+
+    assertTrue(compactJson < indentedJson, "compact JSON should beat indented JSON");
+    assertTrue(cbor < compactJson, "CBOR should beat compact JSON");
+    assertTrue(smile < compactJson, "Smile should beat compact JSON");
+  }
+
+  private static int size(ObjectMapper mapper, AlbumResponse response) {
+    byte[] payload = mapper.writeValueAsBytes(response);
+    AlbumResponse decoded = mapper.readValue(payload, AlbumResponse.class);
+    assertEquals(ALBUMS, decoded.getResults().size());
+    assertEquals("Daft Punk", decoded.getArtist().getArtistName());
+    return payload.length;
+  }
+
+  static AlbumResponse discography() {
+    List<Album> albums = new ArrayList<>(ALBUMS);
+    for (int i = 0; i < ALBUMS; i++) {
+      Album album = new Album();
+      ReflectionTestUtils.setField(album, "artistId", 5468295);
+      ReflectionTestUtils.setField(album, "collectionId", 617154241 + i);
+      ReflectionTestUtils.setField(album, "artistName", "Daft Punk");
+      ReflectionTestUtils.setField(album, "collectionName", "Random Access Memories, Vol. " + i);
+      ReflectionTestUtils.setField(album, "collectionPrice", 9.99);
+      ReflectionTestUtils.setField(album, "currency", "USD");
+      ReflectionTestUtils.setField(album, "primaryGenreName", "Dance");
+      ReflectionTestUtils.setField(album, "copyright", "℗ 2013 Daft Life Limited");
+      albums.add(album);
+    }
+    return new AlbumResponse(ALBUMS, new Artist(5468295, "Daft Punk", "Dance"), albums);
+  }
+}
@@ -0,0 +1,71 @@
+package com.solo.learning.tdourado.api.upstream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.solo.learning.tdourado.config.UpstreamProperties;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+/** Unit tests for UpstreamMonitor. */
+class UpstreamMonitorTest {
+
+  private static UpstreamMonitor monitor(int latencySamples) {
+    UpstreamProperties properties = new UpstreamProperties();
+    properties.setLatencySamples(latencySamples);
+    return new UpstreamMonitor(properties);
+  }
+
+  @Test
+  void snapshot_whenNoCalls_shouldHaveNoPercentiles() {
+    UpstreamMonitor.Snapshot snapshot = monitor(8).snapshot();
+
+    assertEquals(0, snapshot.samples());
+    assertNull(snapshot.p50());
+    assertNull(snapshot.max());
+    assertEquals(Duration.ofSeconds(10), snapshot.timeout());
+  }
+
+  @Test
+  void observe_shouldCountOutcomesAndKeepOnlyTheMostRecentLatencies() {
+    UpstreamMonitor monitor = monitor(4);
+
+    for (int i = 0; i < 6; i++) {
+      monitor.observe(Mono.just("ok")).block();
+    }
+    Mono<String> failing = monitor.observe(Mono.error(new IllegalStateException("boom")));
+    assertThrows(IllegalStateException.class, failing::block);
+
+    UpstreamMonitor.Snapshot snapshot = monitor.snapshot();
+    assertEquals(6, snapshot.succeeded());
+    assertEquals(1, snapshot.failed());
+    assertEquals(0, snapshot.timedOut());
+    assertEquals(4, snapshot.samples());
+    assertEquals(0, snapshot.inFlight());
+    assertTrue(snapshot.p50().compareTo(snapshot.p99()) <= 0);
+    assertTrue(snapshot.p99().compareTo(snapshot.max()) <= 0);
+  }
+
+  @Test
+  void observe_whenSlowerThanTheTimeout_shouldCountATimeout() {
+    UpstreamMonitor monitor = monitor(8);
+    monitor.setTimeout(Duration.ofMillis(20));
+
+    Mono<String> hanging = monitor.observe(Mono.never());
+    assertThrows(RuntimeException.class, hanging::block);
+
+    assertEquals(1, monitor.snapshot().timedOut());
+    assertEquals(Duration.ofMillis(20), monitor.snapshot().timeout());
+  }
+
+  @Test
+  void setTimeout_whenNotPositive_shouldThrow() {
+    UpstreamMonitor monitor = monitor(8);
+
+    assertThrows(IllegalArgumentException.class, () -> monitor.setTimeout(Duration.ZERO));
+    assertEquals(Duration.ofSeconds(10), monitor.getTimeout());
+  }
+}
@@ -0,0 +1,110 @@
+package com.solo.learning.tdourado.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for StorefrontPartitionedCache. */
+class StorefrontPartitionedCacheTest {
+
+  private final StorefrontPartitionedCache<String> cache =
+      new StorefrontPartitionedCache<>(storefront -> "US".equals(storefront) ? 2 : 1);
+
+  @Test
+  void put_whenPartitionFull_shouldEvictLeastRecentlyUsedEntryOfThatStorefrontOnly() {
+    cache.put("GB", 1, "gb-1");
+    cache.put("US", 1, "us-1");
+    cache.put("US", 2, "us-2");
+    assertEquals("us-1", cache.get("US", 1));
+
+    cache.put("US", 3, "us-3");
+
+    assertNull(cache.get("US", 2));
+    assertEquals("us-1", cache.get("US", 1));
+    assertEquals("us-3", cache.get("US", 3));
+    assertEquals(2, cache.size("US"));
+    assertEquals("gb-1", cache.get("GB", 1));
+    assertEquals(1, cache.size("GB"));
+  }
+
+  @Test
+  void put_whenWeighted_shouldEvictUntilTheTotalWeightFits() {
+    StorefrontPartitionedCache<String> weighted =
+        new StorefrontPartitionedCache<>(storefront -> 5, String::length);
+    weighted.put("US", 1, "aa");
+    weighted.put("US", 2, "bb");
+    weighted.put("US", 1, "a");
+
+    weighted.put("US", 3, "ccc");
+
+    assertNull(weighted.get("US", 2));
+    assertEquals("a", weighted.get("US", 1));
+    assertEquals("ccc", weighted.get("US", 3));
+    assertEquals(4, weighted.stats(0).get("US").weight());
+
+    weighted.put("US", 4, "dddddd");
+    assertNull(weighted.get("US", 4));
+    assertEquals(2, weighted.size("US"));
+  }
+
+  @Test
+  void get_whenStorefrontUnknown_shouldReturnNothing() {
+    assertNull(cache.get("BR", 1));
+    assertEquals(0, cache.size("BR"));
+  }
+
+  @Test
+  void resize_whenShrunk_shouldEvictLeastRecentlyUsedEntries() {
+    cache.resize("BR", 3);
+    cache.put("BR", 1, "br-1");
+    cache.put("BR", 2, "br-2");
+    cache.put("BR", 3, "br-3");
+    cache.get("BR", 1);
+
+    cache.resize("BR", 2);
+
+    assertEquals(2, cache.size("BR"));
+    assertNull(cache.get("BR", 2));
+    assertEquals("br-1", cache.get("BR", 1));
+    assertThrows(IllegalArgumentException.class, () -> cache.resize("BR", 0));
+  }
+
+  @Test
+  void stats_shouldReportEachPartitionWithItsMostRecentKeys() {
+    cache.put("US", 1, "us-1");
+    cache.put("US", 2, "us-2");
+    cache.get("US", 1);
+    cache.get("US", 3);
+    cache.put("GB", 7, "gb-7");
+
+    Map<String, StorefrontPartitionedCache.PartitionStats> stats = cache.stats(1);
+
+    assertEquals(List.of("GB", "US"), List.copyOf(stats.keySet()));
+    assertEquals(
+        new StorefrontPartitionedCache.PartitionStats(2, 2, 2, 1, 1, List.of(1)), stats.get("US"));
+    assertEquals(
+        new StorefrontPartitionedCache.PartitionStats(1, 1, 1, 0, 0, List.of(7)), stats.get("GB"));
+  }
+
+  @Test
+  void clear_shouldDropEntriesAndResizedCapacity() {
+    cache.resize("GB", 5);
+    cache.put("GB", 1, "gb-1");
+    cache.put("US", 1, "us-1");
+
+    cache.clear("GB");
+    assertEquals(0, cache.size("GB"));
+    assertEquals(1, cache.size("US"));
+    cache.put("GB", 2, "gb-2");
+    cache.put("GB", 3, "gb-3");
+    assertEquals(1, cache.size("GB"));
+
+    cache.clear();
+    assertEquals(Map.of(), cache.stats(1));
+  }
+}
@@ -0,0 +1,61 @@
+package com.solo.learning.tdourado.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for StringDictionary. */
+class StringDictionaryTest {
+
+  private final StringDictionary dictionary = new StringDictionary();
+
+  @Test
+  void encode_whenValueRepeats_shouldReturnTheSameCodeAndKeepOneCopy() {
+    String usd = "USD";
+    short code = dictionary.encode(usd);
+
+    assertEquals(code, dictionary.encode(new String("USD")));
+    assertSame(usd, dictionary.decode(code));
+    assertEquals(1, dictionary.size());
+  }
+
+  @Test
+  void encode_whenNull_shouldUseTheNullCode() {
+    assertEquals(StringDictionary.NULL_CODE, dictionary.encode(null));
+    assertNull(dictionary.decode(StringDictionary.NULL_CODE));
+    assertEquals(0, dictionary.size());
+  }
+
+  @Test
+  void encode_whenGrowing_shouldKeepEveryEarlierCode() {
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i, dictionary.encode("genre-" + i));
+    }
+    for (int i = 0; i < 1000; i++) {
+      assertEquals("genre-" + i, dictionary.decode((short) i));
+    }
+  }
+
+  @Test
+  void encode_whenFull_shouldRejectNewValuesOnly() {
+    for (int i = 0; i < StringDictionary.MAX_SIZE; i++) {
+      dictionary.encode(Integer.toString(i));
+    }
+
+    assertThrows(IllegalStateException.class, () -> dictionary.encode("one too many"));
+    assertEquals(7, dictionary.encode("7"));
+  }
+
+  @Test
+  void lookup_whenValueIsUnknown_shouldNotAddIt() {
+    short code = dictionary.encode("USD");
+
+    assertEquals(code, dictionary.lookup("USD"));
+    assertEquals(StringDictionary.NULL_CODE, dictionary.lookup("XYZ"));
+    assertEquals(StringDictionary.NULL_CODE, dictionary.lookup(null));
+    assertEquals(1, dictionary.size());
+  }
+}
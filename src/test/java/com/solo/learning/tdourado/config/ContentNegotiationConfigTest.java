@@ -0,0 +1,57 @@
+package com.solo.learning.tdourado.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.solo.learning.tdourado.persistence.domain.Artist;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import tools.jackson.databind.JacksonModule;
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/** Tests of the configuration the binary mappers take over from the JSON mapper. */
+class ContentNegotiationConfigTest {
+
+  private final JsonMapper jsonMapper =
+      JsonMapper.builder()
+          .changeDefaultPropertyInclusion(
+              inclusion -> JsonInclude.Value.construct(JsonInclude.Include.NON_NULL, null))
+          .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+          .build();
+
+  @Test
+  void configureLike_whenJsonMapperIsCustomized_shouldApplyItToCbor() {
+    CBORMapper cbor =
+        ContentNegotiationConfig.configureLike(jsonMapper, noModules(), CBORMapper.builder());
+
+    Map<?, ?> artist = cbor.readValue(cbor.writeValueAsBytes(artist()), Map.class);
+
+    assertEquals("Dance", artist.get("primary_genre_name"));
+    assertFalse(artist.containsKey("artist_name"), "null attributes should be left out");
+  }
+
+  @Test
+  void configureLike_whenJsonMapperIsCustomized_shouldApplyItToSmile() {
+    SmileMapper smile =
+        ContentNegotiationConfig.configureLike(jsonMapper, noModules(), SmileMapper.builder());
+
+    Map<?, ?> artist = smile.readValue(smile.writeValueAsBytes(artist()), Map.class);
+
+    assertEquals("Dance", artist.get("primary_genre_name"));
+    assertFalse(artist.containsKey("artist_name"), "null attributes should be left out");
+  }
+
+  private static Artist artist() {
+    return new Artist(1, null, "Dance");
+  }
+
+  private static ObjectProvider<JacksonModule> noModules() {
+    return new StaticListableBeanFactory().getBeanProvider(JacksonModule.class);
+  }
+}
@@ -0,0 +1,56 @@
+package com.solo.learning.tdourado.persistence.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import com.solo.learning.tdourado.config.CatalogCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Unit tests for CatalogCacheMetrics, with mocked Hibernate statistics. */
+@ExtendWith(MockitoExtension.class)
+class CatalogCacheMetricsTest {
+
+  @Mock private EntityManagerFactory entityManagerFactory;
+  @Mock private SessionFactory sessionFactory;
+  @Mock private Statistics statistics;
+  @Mock private CacheRegionStatistics albumRegionStatistics;
+  @Mock private CacheRegionStatistics queryRegionStatistics;
+
+  @Test
+  void bindTo_shouldPublishHitRatioPerConfiguredRegion() {
+    CatalogCacheProperties properties = new CatalogCacheProperties();
+    properties.getRegions().put("catalog-album", new CatalogCacheProperties.Region());
+    properties.getRegions().put("catalog-album-queries", new CatalogCacheProperties.Region());
+    properties.getRegions().put("catalog-artist", new CatalogCacheProperties.Region());
+
+    when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+    when(sessionFactory.getStatistics()).thenReturn(statistics);
+    when(statistics.getCacheRegionStatistics("catalog-album")).thenReturn(albumRegionStatistics);
+    when(statistics.getCacheRegionStatistics("catalog-album-queries"))
+        .thenReturn(queryRegionStatistics);
+    when(albumRegionStatistics.getHitCount()).thenReturn(3L);
+    when(albumRegionStatistics.getMissCount()).thenReturn(1L);
+    when(queryRegionStatistics.getHitCount()).thenReturn(0L);
+    when(queryRegionStatistics.getMissCount()).thenReturn(0L);
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    new CatalogCacheMetrics(entityManagerFactory, properties).bindTo(registry);
+
+    assertEquals(0.75, gauge(registry, "catalog-album"));
+    assertTrue(Double.isNaN(gauge(registry, "catalog-album-queries")));
+    assertTrue(Double.isNaN(gauge(registry, "catalog-artist")));
+  }
+
+  private static double gauge(SimpleMeterRegistry registry, String region) {
+    return registry.get("ituner.catalog.cache.hit.ratio").tag("region", region).gauge().value();
+  }
+}
@@ -0,0 +1,43 @@
+package com.solo.learning.tdourado.persistence.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.solo.learning.tdourado.persistence.domain.Artist;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Tests of the ArtistRepository queries, against the schema built by the Flyway migrations. */
+@SpringBootTest
+@Transactional
+class ArtistRepositoryTest {
+
+  @Autowired private ArtistRepository artistRepository;
+
+  @Test
+  void findByNamePrefix_whenPrefixHasWildcards_shouldMatchThemLiterally() {
+    save(1, "AC_DC");
+    save(2, "ACxDC");
+    save(3, "100% Hits");
+    save(4, "1000 Hits");
+
+    assertEquals(List.of("AC_DC"), names("AC_"));
+    assertEquals(List.of("100% Hits"), names("100%"));
+    assertEquals(List.of("100% Hits", "1000 Hits"), names("100"));
+  }
+
+  private void save(int artistId, String name) {
+    Artist artist = new Artist(artistId, name, "Rock");
+    artist.setStorefront("US");
+    artistRepository.save(artist);
+  }
+
+  private List<String> names(String prefix) {
+    return artistRepository.findByNamePrefix("US", prefix, "", 0L, PageRequest.of(0, 10)).stream()
+        .map(Artist::getArtistName)
+        .toList();
+  }
+}
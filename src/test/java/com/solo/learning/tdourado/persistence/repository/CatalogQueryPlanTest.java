@@ -0,0 +1,117 @@
+package com.solo.learning.tdourado.persistence.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Locale;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Query plan tests for the catalog's keyset queries.
+ *
+ * <p>These call each repository listing, take the SQL Hibernate prepared for it (captured by
+ * {@link SqlCaptureInspector}), and run H2's EXPLAIN over that same SQL with the same bound
+ * parameters, against the schema built by the Flyway migrations. Each plan must be a range scan
+ * over the matching index, already in key order, instead of a table scan followed by a sort.
+ */
+@SpringBootTest(
+    properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "com.solo.learning.tdourado.persistence.repository.SqlCaptureInspector")
+class CatalogQueryPlanTest {
+
+  // Every Slice query fetches one entry more than the page size.
+  private static final int PAGE_SIZE = 50;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private AlbumRepository albumRepository;
+  @Autowired private ArtistRepository artistRepository;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @BeforeEach
+  void setUp() {
+    // Cached queries would not reach the database.
+    entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    SqlCaptureInspector.clear();
+  }
+
+  @Test
+  void albumsByArtist_shouldSeekOnArtistIndexWithoutSorting() {
+    albumRepository.findByStorefrontAndArtistIdAndAlbumIdGreaterThanOrderByAlbumIdAsc(
+        "US", 5468295, 1000L, PageRequest.of(0, PAGE_SIZE));
+
+    String plan = explain("album", "US", 5468295, 1000L, PAGE_SIZE + 1);
+
+    assertTrue(plan.contains("idx_album_artist_id"), plan);
+    assertTrue(plan.contains("index sorted"), plan);
+    assertFalse(plan.contains("tablescan"), plan);
+  }
+
+  @Test
+  void albumsByGenre_shouldSeekOnGenreIndexWithoutSorting() {
+    albumRepository.findByStorefrontAndPrimaryGenreNameAndAlbumIdGreaterThanOrderByAlbumIdAsc(
+        "US", "Dance", 1000L, PageRequest.of(0, PAGE_SIZE));
+
+    String plan = explain("album", "US", "Dance", 1000L, PAGE_SIZE + 1);
+
+    assertTrue(plan.contains("idx_album_primary_genre_name"), plan);
+    assertTrue(plan.contains("index sorted"), plan);
+    assertFalse(plan.contains("tablescan"), plan);
+  }
+
+  @Test
+  void albumsByCollectionIds_shouldUseCollectionIndex() {
+    albumRepository.findByStorefrontAndCollectionIdIn("US", List.of(617154241, 697194953));
+
+    String plan = explain("album", "US", 617154241, 697194953);
+
+    assertTrue(plan.contains("idx_album_collection_id"), plan);
+    assertFalse(plan.contains("tablescan"), plan);
+  }
+
+  @Test
+  void artistByArtistId_shouldUseArtistIdIndex() {
+    artistRepository.findFirstByStorefrontAndArtistId("US", 5468295);
+
+    String plan = explain("artist", "US", 5468295, 1);
+
+    assertTrue(plan.contains("idx_artist_artist_id"), plan);
+    assertFalse(plan.contains("tablescan"), plan);
+  }
+
+  @Test
+  void artistsByNamePrefix_shouldRangeScanNameIndexWithoutSorting() {
+    artistRepository.findByNamePrefix("US", "Daft", "Daft Punk", 3L, PageRequest.of(0, PAGE_SIZE));
+
+    String plan =
+        explain("artist", "US", "Daft", "Daft", "Daft Punk", "Daft Punk", 3L, PAGE_SIZE + 1);
+
+    assertTrue(plan.contains("idx_artist_artist_name"), plan);
+    assertTrue(plan.contains("index sorted"), plan);
+    assertFalse(plan.contains("tablescan"), plan);
+  }
+
+  /**
+   * Explains the last query Hibernate prepared over a table.
+   *
+   * @param table The table the query reads.
+   * @param parameters The values of its JDBC parameters, in order.
+   * @return The lower-case plan.
+   */
+  private String explain(String table, Object... parameters) {
+    String sql = SqlCaptureInspector.lastSelectFrom(table);
+    assertEquals(parameters.length, sql.chars().filter(c -> c == '?').count(), sql);
+    return jdbcTemplate
+        .queryForObject("EXPLAIN " + sql, String.class, parameters)
+        .toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,91 @@
+package com.solo.learning.tdourado.persistence.repository;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.solo.learning.tdourado.persistence.domain.Album;
+import com.solo.learning.tdourado.persistence.domain.Artist;
+import com.solo.learning.tdourado.persistence.rest.KeysetPagingFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+/** Tests of the Spring Data REST catalog resources, against the full application context. */
+@SpringBootTest
+@Transactional
+class CatalogRestApiTest {
+
+  private static final String ALBUM =
+      """
+      {"storefront": "US", "artistId": 1, "collectionId": 1, "collectionName": "Homework"}
+      """;
+
+  @Autowired private WebApplicationContext context;
+  @Autowired private AlbumRepository albumRepository;
+  @Autowired private ArtistRepository artistRepository;
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    mockMvc =
+        MockMvcBuilders.webAppContextSetup(context)
+            .addFilters(context.getBean(KeysetPagingFilter.class))
+            .build();
+  }
+
+  @Test
+  void writes_shouldNotBeAllowed() throws Exception {
+    // Item requests only reach the method check once the item is found, so store one of each.
+    Album album = new Album(1, 1, "Daft Punk", "Homework", 9.99, "USD", "Electronic", null);
+    album.setStorefront("US");
+    String albumUri = "/catalog/albums/" + albumRepository.save(album).getAlbumId();
+    Artist artist = new Artist(1, "Daft Punk", "Electronic");
+    artist.setStorefront("US");
+    String artistUri = "/catalog/artists/" + artistRepository.save(artist).getArtistUniqueId();
+
+    mockMvc
+        .perform(post("/catalog/albums").contentType(MediaType.APPLICATION_JSON).content(ALBUM))
+        .andExpect(status().isMethodNotAllowed());
+    mockMvc
+        .perform(post("/catalog/artists").contentType(MediaType.APPLICATION_JSON).content("{}"))
+        .andExpect(status().isMethodNotAllowed());
+    mockMvc
+        .perform(put(albumUri).contentType(MediaType.APPLICATION_JSON).content(ALBUM))
+        .andExpect(status().isMethodNotAllowed());
+    mockMvc
+        .perform(patch(artistUri).contentType(MediaType.APPLICATION_JSON).content("{}"))
+        .andExpect(status().isMethodNotAllowed());
+    mockMvc.perform(delete(albumUri)).andExpect(status().isMethodNotAllowed());
+    mockMvc.perform(delete(artistUri)).andExpect(status().isMethodNotAllowed());
+  }
+
+  @Test
+  void search_whenPageIsNotZero_shouldBeRejected() throws Exception {
+    mockMvc
+        .perform(
+            get("/catalog/albums/search/by-artist")
+                .param("country", "US")
+                .param("artistId", "5468295")
+                .param("after", "0")
+                .param("page", "3"))
+        .andExpect(status().isBadRequest());
+    mockMvc
+        .perform(
+            get("/catalog/albums/search/by-artist")
+                .param("country", "US")
+                .param("artistId", "5468295")
+                .param("after", "0"))
+        .andExpect(status().isOk());
+  }
+}
@@ -0,0 +1,39 @@
+package com.solo.learning.tdourado.persistence.repository;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/** Hibernate StatementInspector recording the SQL it prepares, so tests can inspect it. */
+public class SqlCaptureInspector implements StatementInspector {
+  private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+  @Override
+  public String inspect(String sql) {
+    STATEMENTS.add(sql);
+    return sql;
+  }
+
+  /** Forgets every recorded statement. */
+  static void clear() {
+    STATEMENTS.clear();
+  }
+
+  /**
+   * Gets the last recorded query over a table.
+   *
+   * @param table The table name.
+   * @return The SQL, with its JDBC parameters.
+   */
+  static String lastSelectFrom(String table) {
+    for (int i = STATEMENTS.size() - 1; i >= 0; i--) {
+      String sql = STATEMENTS.get(i);
+      String lower = sql.toLowerCase(Locale.ROOT);
+      if (lower.startsWith("select") && lower.contains(" from " + table + " ")) {
+        return sql;
+      }
+    }
+    throw new AssertionError("No query over " + table + " was prepared: " + STATEMENTS);
+  }
+}
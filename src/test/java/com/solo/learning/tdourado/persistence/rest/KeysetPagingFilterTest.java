@@ -0,0 +1,118 @@
+package com.solo.learning.tdourado.persistence.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/** Unit tests for KeysetPagingFilter, over canned Spring Data REST responses. */
+class KeysetPagingFilterTest {
+
+  private static final String ARTISTS =
+      """
+      {"_embedded": {"artists": [
+        {"artistName": "Daft Punk",
+         "_links": {"self": {"href": "http://localhost/catalog/artists/3"}}},
+        {"artistName": "Daft & Co",
+         "_links": {"self": {"href": "http://localhost/catalog/artists/7{?projection}"}}}
+      ]},
+      "_links": {"next": {"href": "http://localhost/catalog/artists/search/by-name\
+      ?country=US&prefix=Daft&afterName=&afterId=0&page=1&size=2"}}}
+      """;
+
+  private static final String ALBUMS =
+      """
+      {"_embedded": {"albums": [
+        {"collectionName": "Homework",
+         "_links": {"self": {"href": "http://localhost/catalog/albums/41"}}}
+      ]},
+      "_links": {"next": {"href": "http://localhost/catalog/albums/search/by-artist\
+      ?country=US&artistId=5468295&after=0&page=1&size=1{&sort}", "templated": true}}}
+      """;
+
+  private final KeysetPagingFilter filter = new KeysetPagingFilter("/catalog");
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void filter_whenPageIsNotZero_shouldRejectTheRequest() throws Exception {
+    MockHttpServletRequest request = search("/catalog/albums/search/by-artist");
+    request.setParameter("page", "2");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    MockFilterChain chain = new MockFilterChain();
+
+    filter.doFilter(request, response, chain);
+
+    assertEquals(400, response.getStatus());
+    assertNull(chain.getRequest());
+  }
+
+  @Test
+  void filter_whenArtistSearch_shouldLinkToTheLastNameAndId() throws Exception {
+    JsonNode body = filter("/catalog/artists/search/by-name", ARTISTS);
+
+    String next = body.path("_links").path("next").path("href").asText();
+    assertTrue(next.contains("afterName=Daft%20%26%20Co"), next);
+    assertTrue(next.contains("afterId=7"), next);
+    assertFalse(next.contains("page="), next);
+    assertTrue(next.contains("size=2"), next);
+  }
+
+  @Test
+  void filter_whenAlbumSearch_shouldLinkToTheLastAlbumIdAndKeepTheTemplate() throws Exception {
+    JsonNode body = filter("/catalog/albums/search/by-artist", ALBUMS);
+
+    String next = body.path("_links").path("next").path("href").asText();
+    assertTrue(next.contains("after=41"), next);
+    assertFalse(next.contains("page="), next);
+    assertTrue(next.endsWith("{&sort}"), next);
+  }
+
+  @Test
+  void filter_whenNotASearch_shouldLeaveTheResponseAlone() throws Exception {
+    MockHttpServletRequest request = search("/catalog/albums/41");
+    request.setParameter("page", "2");
+
+    assertTrue(filter.shouldNotFilter(request));
+    assertTrue(filter.shouldNotFilter(search("/artist/909253/albums")));
+  }
+
+  private JsonNode filter(String path, String body) throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(search(path), response, new MockFilterChain(new CannedServlet(body)));
+    assertEquals(200, response.getStatus());
+    return objectMapper.readTree(response.getContentAsByteArray());
+  }
+
+  private static MockHttpServletRequest search(String path) {
+    return new MockHttpServletRequest("GET", path);
+  }
+
+  /** Servlet answering every request with the same HAL JSON body. */
+  private static final class CannedServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+    private final transient String body;
+
+    CannedServlet(String body) {
+      this.body = body;
+    }
+
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response)
+        throws IOException {
+      response.setContentType("application/hal+json");
+      response.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+}
@@ -0,0 +1,191 @@
+package com.solo.learning.tdourado.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import com.solo.learning.tdourado.cache.StringDictionary;
+import com.solo.learning.tdourado.persistence.domain.Album;
+import com.solo.learning.tdourado.persistence.repository.AlbumRepository;
+import com.solo.learning.tdourado.stats.CatalogStatistics.GenreCount;
+import com.solo.learning.tdourado.sync.AlbumChangeEvent;
+import com.solo.learning.tdourado.sync.DiscographySyncService;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Unit tests for CatalogStatistics, with a mocked album repository and a mocked sync service that
+ * runs the exclusive actions right away.
+ */
+@ExtendWith(MockitoExtension.class)
+class CatalogStatisticsTest {
+
+  @Mock private AlbumRepository albumRepository;
+  @Mock private DiscographySyncService syncService;
+
+  private CatalogStatistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics =
+        new CatalogStatistics(albumRepository, new StringDictionary(), syncService, Runnable::run);
+  }
+
+  @Test
+  void onApplicationReady_shouldReadEveryPageOfStoredAlbums() {
+    doAnswer(CatalogStatisticsTest::runAction).when(syncService).runExclusively(any());
+    when(albumRepository.findByAlbumIdGreaterThanOrderByAlbumIdAsc(eq(0L), any()))
+        .thenReturn(
+            new SliceImpl<>(
+                List.of(
+                    stored(1, "US", "Dance", 9.99, "USD"), stored(2, "US", "Rock", 7.99, "USD")),
+                PageRequest.of(0, 2),
+                true));
+    when(albumRepository.findByAlbumIdGreaterThanOrderByAlbumIdAsc(eq(2L), any()))
+        .thenReturn(new SliceImpl<>(List.of(stored(3, "DE", "Dance", 8.99, "EUR"))));
+    assertFalse(statistics.isReady());
+
+    statistics.onApplicationReady();
+
+    assertTrue(statistics.isReady());
+    assertEquals(3, statistics.getAlbums());
+    assertEquals(
+        List.of(new GenreCount("Dance", 2), new GenreCount("Rock", 1)), statistics.genres());
+    assertEquals(2, statistics.prices("USD", null).orElseThrow().getCount());
+  }
+
+  @Test
+  void onAlbumChange_whileFilling_shouldLeaveRowsNotReadYetToTheFill() {
+    doAnswer(CatalogStatisticsTest::runAction)
+        .doAnswer(
+            invocation -> {
+              // Syncs committed between two pages: a row already read and a row added since.
+              statistics.onAlbumChange(
+                  new AlbumChangeEvent(
+                      "US",
+                      5468295,
+                      2,
+                      2L,
+                      AlbumChangeEvent.Type.CHANGED,
+                      album("Rock", 7.99, "USD"),
+                      album("Electronic", 7.99, "USD")));
+              statistics.onAlbumChange(
+                  new AlbumChangeEvent(
+                      "US",
+                      5468295,
+                      4,
+                      4L,
+                      AlbumChangeEvent.Type.ADDED,
+                      null,
+                      album("Dance", 9.99, "USD")));
+              return runAction(invocation);
+            })
+        .when(syncService)
+        .runExclusively(any());
+    when(albumRepository.findByAlbumIdGreaterThanOrderByAlbumIdAsc(eq(0L), any()))
+        .thenReturn(
+            new SliceImpl<>(
+                List.of(
+                    stored(1, "US", "Dance", 9.99, "USD"), stored(2, "US", "Rock", 7.99, "USD")),
+                PageRequest.of(0, 2),
+                true));
+    when(albumRepository.findByAlbumIdGreaterThanOrderByAlbumIdAsc(eq(2L), any()))
+        .thenReturn(
+            new SliceImpl<>(
+                List.of(
+                    stored(3, "US", "Dance", 8.99, "USD"), stored(4, "US", "Dance", 9.99, "USD"))));
+
+    statistics.onApplicationReady();
+
+    assertEquals(4, statistics.getAlbums());
+    assertEquals(
+        List.of(new GenreCount("Dance", 3), new GenreCount("Electronic", 1)),
+        statistics.genres());
+    assertEquals(4, statistics.prices("USD", "US").orElseThrow().getCount());
+  }
+
+  @Test
+  void onAlbumChange_shouldSwapTheOverwrittenContentForTheStoredOne() {
+    fillFromEmptyTable();
+    statistics.add("US", album("Dance", 9.99, "USD"));
+
+    statistics.onAlbumChange(
+        new AlbumChangeEvent(
+            "US",
+            5468295,
+            1,
+            1L,
+            AlbumChangeEvent.Type.CHANGED,
+            album("Dance", 9.99, "USD"),
+            album("Electronic", 7.99, "USD")));
+    statistics.onAlbumChange(
+        new AlbumChangeEvent("US", 5468295, 2, null, AlbumChangeEvent.Type.REMOVED, null, null));
+
+    assertEquals(1, statistics.getAlbums());
+    assertEquals(List.of(new GenreCount("Electronic", 1)), statistics.genres());
+    PriceSummary prices = statistics.prices("USD", "US").orElseThrow();
+    assertEquals(1, prices.getCount());
+    assertEquals(7.99, prices.getMean(), 1e-9);
+    assertEquals(7.99, prices.getMax(), 7.99 * PriceSketch.RELATIVE_ACCURACY);
+  }
+
+  @Test
+  void prices_shouldMergeStorefrontsUnlessOneIsGiven() {
+    statistics.add("DE", album("Dance", 8.99, "EUR"));
+    statistics.add("FR", album("Dance", 10.99, "EUR"));
+    statistics.add("US", album("Dance", 9.99, "USD"));
+
+    PriceSummary euro = statistics.prices("EUR", null).orElseThrow();
+    assertEquals(2, euro.getCount());
+    assertEquals(8.99, euro.getMin(), 8.99 * PriceSketch.RELATIVE_ACCURACY);
+    assertEquals(10.99, euro.getMax(), 10.99 * PriceSketch.RELATIVE_ACCURACY);
+    assertEquals(1, statistics.prices("EUR", "FR").orElseThrow().getCount());
+    assertTrue(statistics.prices("EUR", "US").isEmpty());
+    assertTrue(statistics.prices("GBP", null).isEmpty());
+  }
+
+  @Test
+  void add_whenContentIsMissing_shouldOnlyCountTheAlbum() {
+    statistics.add("US", album(null, null, "USD"));
+
+    assertEquals(1, statistics.getAlbums());
+    assertTrue(statistics.genres().isEmpty());
+    assertTrue(statistics.prices("USD", null).isEmpty());
+  }
+
+  private void fillFromEmptyTable() {
+    doAnswer(CatalogStatisticsTest::runAction).when(syncService).runExclusively(any());
+    when(albumRepository.findByAlbumIdGreaterThanOrderByAlbumIdAsc(eq(0L), any()))
+        .thenReturn(new SliceImpl<>(List.of()));
+    statistics.onApplicationReady();
+  }
+
+  private static Object runAction(InvocationOnMock invocation) {
+    invocation.<Runnable>getArgument(0).run();
+    return null;
+  }
+
+  private static Album album(String genre, Double price, String currency) {
+    return new Album(5468295, 1, "Daft Punk", "Homework", price, currency, genre, null);
+  }
+
+  private static Album stored(
+      long albumId, String storefront, String genre, Double price, String currency) {
+    Album album = album(genre, price, currency);
+    ReflectionTestUtils.setField(album, "albumId", albumId);
+    album.setStorefront(storefront);
+    return album;
+  }
+}
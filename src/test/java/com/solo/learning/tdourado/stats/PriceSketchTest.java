@@ -0,0 +1,74 @@
+package com.solo.learning.tdourado.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for PriceSketch. */
+class PriceSketchTest {
+
+  private final PriceSketch sketch = new PriceSketch();
+
+  @Test
+  void quantile_whenEmpty_shouldBeNaN() {
+    assertTrue(Double.isNaN(sketch.quantile(0.5)));
+    assertTrue(Double.isNaN(sketch.min()));
+    assertTrue(Double.isNaN(sketch.max()));
+  }
+
+  @Test
+  void quantile_shouldStayWithinTheRelativeAccuracy() {
+    for (int cents = 1; cents <= 10_000; cents++) {
+      sketch.add(cents / 100.0);
+    }
+
+    assertWithinAccuracy(50.0, sketch.quantile(0.5));
+    assertWithinAccuracy(90.0, sketch.quantile(0.9));
+    assertWithinAccuracy(99.0, sketch.quantile(0.99));
+    assertWithinAccuracy(100.0, sketch.quantile(1));
+    assertWithinAccuracy(0.01, sketch.quantile(0));
+  }
+
+  @Test
+  void quantile_whenFree_shouldBeZero() {
+    sketch.add(0);
+    sketch.add(0);
+    sketch.add(9.99);
+
+    assertEquals(0, sketch.quantile(0.5));
+    assertWithinAccuracy(9.99, sketch.quantile(0.9));
+    assertEquals(0, sketch.min());
+    assertWithinAccuracy(9.99, sketch.max());
+  }
+
+  @Test
+  void remove_shouldUndoAnAdd() {
+    sketch.add(1.99);
+    sketch.add(9.99);
+    sketch.add(19.99);
+    sketch.remove(1.99);
+    sketch.remove(19.99);
+
+    assertWithinAccuracy(9.99, sketch.quantile(0));
+    assertWithinAccuracy(9.99, sketch.min());
+    assertWithinAccuracy(9.99, sketch.max());
+  }
+
+  @Test
+  void merge_shouldAddTheBuckets() {
+    PriceSketch other = new PriceSketch();
+    sketch.add(1.99);
+    other.add(9.99);
+    other.add(9.99);
+
+    sketch.merge(other);
+
+    assertWithinAccuracy(1.99, sketch.quantile(0.3));
+    assertWithinAccuracy(9.99, sketch.quantile(0.5));
+  }
+
+  private static void assertWithinAccuracy(double expected, double actual) {
+    assertEquals(expected, actual, expected * PriceSketch.RELATIVE_ACCURACY);
+  }
+}
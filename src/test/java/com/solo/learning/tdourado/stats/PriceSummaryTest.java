@@ -0,0 +1,69 @@
+package com.solo.learning.tdourado.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for PriceSummary. */
+class PriceSummaryTest {
+
+  private final PriceSummary summary = new PriceSummary();
+
+  @Test
+  void getters_whenEmpty_shouldBeNaN() {
+    assertEquals(0, summary.getCount());
+    assertTrue(Double.isNaN(summary.getMean()));
+    assertTrue(Double.isNaN(summary.getMin()));
+    assertTrue(Double.isNaN(summary.getMax()));
+    assertTrue(Double.isNaN(summary.quantile(0.5)));
+  }
+
+  @Test
+  void add_shouldTrackCountMeanAndBounds() {
+    summary.add(4.99);
+    summary.add(9.99);
+    summary.add(14.99);
+
+    assertEquals(3, summary.getCount());
+    assertEquals(9.99, summary.getMean(), 1e-9);
+    assertWithinAccuracy(4.99, summary.getMin());
+    assertWithinAccuracy(14.99, summary.getMax());
+    assertWithinAccuracy(9.99, summary.quantile(0.5));
+  }
+
+  @Test
+  void remove_shouldUpdateEverythingIncludingTheBounds() {
+    summary.add(4.99);
+    summary.add(9.99);
+    summary.add(14.99);
+
+    summary.remove(4.99);
+    summary.remove(14.99);
+
+    assertEquals(1, summary.getCount());
+    assertEquals(9.99, summary.getMean(), 1e-9);
+    assertWithinAccuracy(9.99, summary.getMin());
+    assertWithinAccuracy(9.99, summary.getMax());
+    assertWithinAccuracy(9.99, summary.quantile(0));
+  }
+
+  @Test
+  void merge_shouldCombineBothSummaries() {
+    PriceSummary other = new PriceSummary();
+    summary.add(9.99);
+    other.add(1.99);
+    other.add(17.99);
+
+    summary.merge(other);
+
+    assertEquals(3, summary.getCount());
+    assertEquals(9.99, summary.getMean(), 1e-9);
+    assertWithinAccuracy(1.99, summary.getMin());
+    assertWithinAccuracy(17.99, summary.getMax());
+  }
+
+  private static void assertWithinAccuracy(double expected, double actual) {
+    assertEquals(expected, actual, expected * PriceSketch.RELATIVE_ACCURACY);
+  }
+}
@@ -0,0 +1,194 @@
+package com.solo.learning.tdourado.sync;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.solo.learning.tdourado.cache.StringDictionary;
+import com.solo.learning.tdourado.persistence.domain.Album;
+import com.solo.learning.tdourado.persistence.domain.Artist;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Unit tests for ArtistSyncState and the DiscographyDiff it produces. */
+class ArtistSyncStateTest {
+
+  private static final Artist ARTIST = new Artist(5468295, "Daft Punk", "Dance");
+
+  static Album album(Integer collectionId, String collectionName, Double price) {
+    Album album = new Album();
+    ReflectionTestUtils.setField(album, "artistId", ARTIST.getArtistId());
+    ReflectionTestUtils.setField(album, "collectionId", collectionId);
+    ReflectionTestUtils.setField(album, "artistName", ARTIST.getArtistName());
+    ReflectionTestUtils.setField(album, "collectionName", collectionName);
+    ReflectionTestUtils.setField(album, "collectionPrice", price);
+    ReflectionTestUtils.setField(album, "currency", "USD");
+    ReflectionTestUtils.setField(album, "primaryGenreName", "Dance");
+    return album;
+  }
+
+  @Test
+  void of_whenDuplicatesAndMissingIds_shouldKeepLastOccurrenceAndSkipMissing() {
+    ArtistSyncState state =
+        ArtistSyncState.of(
+            ARTIST,
+            List.of(
+                album(3, "Discovery", 9.99),
+                album(null, "Bootleg", 1.0),
+                album(1, "Homework", 9.99),
+                album(3, "Discovery (Remastered)", 9.99)));
+
+    assertEquals(2, state.size());
+    assertTrue(state.contains(1));
+    assertTrue(state.contains(3));
+    assertFalse(state.contains(2));
+
+    ArtistSyncState withRemaster =
+        ArtistSyncState.of(
+            ARTIST, List.of(album(1, "Homework", 9.99), album(3, "Discovery (Remastered)", 9.99)));
+    assertTrue(withRemaster.diffAgainst(state).isEmpty());
+  }
+
+  @Test
+  void diffAgainst_whenDiscographyChanged_shouldReportOnlyDifferences() {
+    ArtistSyncState previous =
+        ArtistSyncState.of(
+            ARTIST,
+            List.of(
+                album(1, "Homework", 9.99),
+                album(2, "Discovery", 9.99),
+                album(4, "Human After All", 9.99)));
+    ArtistSyncState current =
+        ArtistSyncState.of(
+            ARTIST,
+            List.of(
+                album(2, "Discovery", 7.99),
+                album(4, "Human After All", 9.99),
+                album(5, "Random Access Memories", 11.99),
+                album(-7, "Alive 1997", 5.99)));
+
+    DiscographyDiff diff = current.diffAgainst(previous);
+
+    assertFalse(diff.isEmpty());
+    assertFalse(diff.isArtistChanged());
+    assertArrayEquals(new int[] {-7, 5}, diff.getAdded());
+    assertArrayEquals(new int[] {2}, diff.getChanged());
+    assertArrayEquals(new int[] {1}, diff.getRemoved());
+    assertArrayEquals(new int[] {-7, 2, 5}, diff.getUpserts());
+    assertEquals(
+        "DiscographyDiff[artistChanged=false, added=2, changed=1, removed=1]", diff.toString());
+  }
+
+  @Test
+  void diffAgainst_whenNeverSynced_shouldReportArtistAndEveryAlbumAsNew() {
+    ArtistSyncState current = ArtistSyncState.of(ARTIST, List.of(album(1, "Homework", 9.99)));
+
+    DiscographyDiff diff = current.diffAgainst(ArtistSyncState.EMPTY);
+
+    assertTrue(diff.isArtistChanged());
+    assertArrayEquals(new int[] {1}, diff.getAdded());
+    assertEquals(0, diff.getRemoved().length);
+  }
+
+  @Test
+  void diffAgainst_whenChangeCollidesUnderObjectsHash_shouldStillReportIt() {
+    // "Aa" and "BB" have the same String.hashCode, so Objects.hash would see no change.
+    ArtistSyncState previous = ArtistSyncState.of(ARTIST, List.of(album(1, "Aa", 9.99)));
+    ArtistSyncState current = ArtistSyncState.of(ARTIST, List.of(album(1, "BB", 9.99)));
+
+    assertArrayEquals(new int[] {1}, current.diffAgainst(previous).getChanged());
+  }
+
+  @Test
+  void diffAgainst_whenOnlyAlbumsRemoved_shouldReportRemovals() {
+    ArtistSyncState previous = ArtistSyncState.of(ARTIST, List.of(album(1, "Homework", 9.99)));
+
+    DiscographyDiff diff = ArtistSyncState.of(null, List.of()).diffAgainst(previous);
+
+    assertTrue(diff.isArtistChanged());
+    assertArrayEquals(new int[] {1}, diff.getRemoved());
+  }
+
+  @Test
+  void capture_shouldRebuildEveryAttributeOfThePickedAlbums() {
+    Album withoutPrice = album(9, "Musique Vol. 1", null);
+    ReflectionTestUtils.setField(withoutPrice, "artistId", null);
+    ReflectionTestUtils.setField(withoutPrice, "copyright", "(P) 2006 Virgin");
+    List<Album> albums =
+        List.of(
+            album(3, "Discovery", 9.99), withoutPrice, album(3, "Discovery (Remastered)", 7.99));
+
+    ArtistSyncState state = ArtistSyncState.capture(ARTIST, albums, new StringDictionary());
+    SyncedDiscography discography = state.discography().orElseThrow();
+
+    assertEquals(ARTIST.contentHash(), discography.artist().contentHash());
+    assertEquals(2, discography.albums().size());
+    assertEquals(albums.get(2).contentHash(), discography.albums().get(0).contentHash());
+    assertEquals(withoutPrice.contentHash(), discography.albums().get(1).contentHash());
+    assertNull(discography.albums().get(1).getCollectionPrice());
+    assertNull(discography.albums().get(1).getArtistId());
+    assertTrue(state.diffAgainst(ArtistSyncState.of(ARTIST, albums)).isEmpty());
+  }
+
+  @Test
+  void capture_shouldShareRepeatedStringsAcrossDiscographies() {
+    StringDictionary dictionary = new StringDictionary();
+    Album homework = album(1, "Homework", 9.99);
+    Album other = album(2, "Discovery", 9.99);
+    ReflectionTestUtils.setField(other, "currency", new String("USD"));
+    ReflectionTestUtils.setField(other, "artistName", new String("Daft Punk"));
+
+    List<Album> first =
+        ArtistSyncState.capture(ARTIST, List.of(homework), dictionary)
+            .discography()
+            .orElseThrow()
+            .albums();
+    List<Album> second =
+        ArtistSyncState.capture(ARTIST, List.of(homework, other), dictionary)
+            .discography()
+            .orElseThrow()
+            .albums();
+
+    assertSame(first.get(0).getCurrency(), second.get(1).getCurrency());
+    assertSame(first.get(0).getPrimaryGenreName(), second.get(1).getPrimaryGenreName());
+    assertSame(second.get(0).getArtistName(), second.get(1).getArtistName());
+    assertEquals(2, dictionary.size());
+  }
+
+  @Test
+  void capture_shouldRetainAThirdOfTheHeapOfTheAlbumEntities() {
+    List<Album> albums = new ArrayList<>();
+    for (int collectionId = 0; collectionId < 20; collectionId++) {
+      Album album =
+          album(collectionId, String.format("Greatest Hits Volume %02d", collectionId), 9.99);
+      // Strings of their own, as when parsed from an iTunes response.
+      ReflectionTestUtils.setField(album, "artistName", new String(ARTIST.getArtistName()));
+      ReflectionTestUtils.setField(album, "currency", new String("USD"));
+      ReflectionTestUtils.setField(album, "primaryGenreName", new String("Dance"));
+      ReflectionTestUtils.setField(album, "copyright", new String("(P) 2001 Daft Life Ltd."));
+      albums.add(album);
+    }
+
+    long entities = HeapFootprint.of(albums.toArray());
+    long ids = HeapFootprint.of(ArtistSyncState.of(ARTIST, albums));
+    long columns =
+        HeapFootprint.of(
+            ArtistSyncState.capture(ARTIST, albums, new StringDictionary()),
+            StringDictionary.class);
+
+    assertTrue(3 * columns <= entities, columns + " bytes kept for " + entities + " of entities");
+    assertTrue(20 * ids <= entities, ids + " bytes kept for " + entities + " of entities");
+  }
+
+  @Test
+  void of_shouldNotKeepTheContent() {
+    ArtistSyncState state = ArtistSyncState.of(ARTIST, List.of(album(1, "Homework", 9.99)));
+
+    assertTrue(state.discography().isEmpty());
+  }
+}
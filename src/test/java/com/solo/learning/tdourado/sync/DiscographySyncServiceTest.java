@@ -0,0 +1,340 @@
+package com.solo.learning.tdourado.sync;
+
+import static com.solo.learning.tdourado.sync.ArtistSyncStateTest.album;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.solo.learning.tdourado.cache.StorefrontPartitionedCache;
+import com.solo.learning.tdourado.cache.StringDictionary;
+import com.solo.learning.tdourado.persistence.domain.Album;
+import com.solo.learning.tdourado.persistence.domain.Artist;
+import com.solo.learning.tdourado.persistence.repository.AlbumRepository;
+import com.solo.learning.tdourado.persistence.repository.ArtistRepository;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+/** Unit tests for DiscographySyncService, with mocked repositories and event publisher. */
+@ExtendWith(MockitoExtension.class)
+class DiscographySyncServiceTest {
+
+  private static final Artist ARTIST = new Artist(5468295, "Daft Punk", "Dance");
+  private static final String US = "US";
+
+  @Mock private AlbumRepository albumRepository;
+  @Mock private ArtistRepository artistRepository;
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  private DiscographySyncService syncService;
+
+  @BeforeEach
+  void setUp() {
+    syncService =
+        new DiscographySyncService(
+            albumRepository,
+            artistRepository,
+            eventPublisher,
+            new StorefrontPartitionedCache<>(storefront -> 100),
+            new StringDictionary());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void sync_whenFirstSyncAfterRestart_shouldOnlyWriteAlbumsMissingFromDatabase() {
+    Album stored = album(1, "Homework", 9.99);
+    when(albumRepository.findByStorefrontAndCollectionIdIn(eq(US), anyCollection()))
+        .thenReturn(List.of(stored));
+    when(artistRepository.findFirstByStorefrontAndArtistId(US, ARTIST.getArtistId()))
+        .thenReturn(Optional.of(new Artist(5468295, "Daft Punk", "Dance")));
+    when(albumRepository.saveAll(anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<Album> persisted = invocation.getArgument(0);
+              persisted.forEach(album -> ReflectionTestUtils.setField(album, "albumId", 42L));
+              return persisted;
+            });
+
+    DiscographyDiff diff =
+        syncService.sync(
+            US, ARTIST, List.of(album(1, "Homework", 9.99), album(2, "Discovery", 9.99)));
+
+    assertArrayEquals(new int[] {2}, diff.getAdded());
+    ArgumentCaptor<List<Album>> saved = ArgumentCaptor.forClass(List.class);
+    verify(albumRepository).saveAll(saved.capture());
+    assertEquals(1, saved.getValue().size());
+    assertEquals(2, saved.getValue().get(0).getCollectionId());
+    assertEquals(US, saved.getValue().get(0).getStorefront());
+    verify(artistRepository, never()).save(any());
+    AlbumChangeEvent added = published(US, 2);
+    assertEquals(AlbumChangeEvent.Type.ADDED, added.type());
+    assertEquals(5468295, added.artistId());
+    assertEquals(42L, added.albumId());
+    assertNull(added.before());
+    assertEquals("Discovery", added.after().getCollectionName());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void sync_whenRefreshed_shouldUpsertChangedAlbumsInPlaceAndDeleteRemovedOnes() {
+    when(artistRepository.findFirstByStorefrontAndArtistId(US, ARTIST.getArtistId()))
+        .thenReturn(Optional.empty());
+    syncService.sync(US, ARTIST, List.of(album(1, "Homework", 9.99), album(2, "Discovery", 9.99)));
+    verify(artistRepository).save(any(Artist.class));
+
+    Album stored = album(2, "Discovery", 9.99);
+    Album dropped = album(1, "Homework", 9.99);
+    when(albumRepository.findByStorefrontAndCollectionIdIn(eq(US), anyCollection()))
+        .thenReturn(List.of(stored, dropped));
+
+    DiscographyDiff diff =
+        syncService.sync(
+            US, ARTIST, List.of(album(2, "Discovery", 7.99), album(3, "Human After All", 9.99)));
+
+    assertArrayEquals(new int[] {3}, diff.getAdded());
+    assertArrayEquals(new int[] {2}, diff.getChanged());
+    assertArrayEquals(new int[] {1}, diff.getRemoved());
+
+    ArgumentCaptor<List<Album>> saved = ArgumentCaptor.forClass(List.class);
+    verify(albumRepository, times(2)).saveAll(saved.capture());
+    List<Album> refreshed = saved.getAllValues().get(1);
+    assertEquals(2, refreshed.size());
+    assertSame(stored, refreshed.get(0));
+    assertEquals(7.99, stored.getCollectionPrice());
+
+    assertEquals(AlbumChangeEvent.Type.ADDED, published(US, 3).type());
+    AlbumChangeEvent changed = published(US, 2);
+    assertEquals(AlbumChangeEvent.Type.CHANGED, changed.type());
+    assertEquals(9.99, changed.before().getCollectionPrice());
+    assertEquals(7.99, changed.after().getCollectionPrice());
+    assertNotSame(stored, changed.after());
+    verify(albumRepository).deleteAll(List.of(dropped));
+    AlbumChangeEvent removed = published(US, 1);
+    assertEquals(AlbumChangeEvent.Type.REMOVED, removed.type());
+    assertEquals("Homework", removed.before().getCollectionName());
+    assertNull(removed.after());
+  }
+
+  @Test
+  void sync_whenAlbumDroppedBeforeRestart_shouldStillDeleteIt() {
+    Album kept = album(1, "Homework", 9.99);
+    Album dropped = album(2, "Discovery", 9.99);
+    ReflectionTestUtils.setField(dropped, "albumId", 12L);
+    when(albumRepository.findByStorefrontAndCollectionIdIn(eq(US), anyCollection()))
+        .thenReturn(List.of(kept));
+    when(albumRepository.findByStorefrontAndArtistId(US, ARTIST.getArtistId()))
+        .thenReturn(List.of(kept, dropped));
+    when(artistRepository.findFirstByStorefrontAndArtistId(US, ARTIST.getArtistId()))
+        .thenReturn(Optional.of(new Artist(5468295, "Daft Punk", "Dance")));
+
+    DiscographyDiff diff = syncService.sync(US, ARTIST, List.of(album(1, "Homework", 9.99)));
+
+    assertArrayEquals(new int[] {2}, diff.getRemoved());
+    verify(albumRepository).deleteAll(List.of(dropped));
+    verify(albumRepository, never()).saveAll(any());
+    AlbumChangeEvent removed = published(US, 2);
+    assertEquals(AlbumChangeEvent.Type.REMOVED, removed.type());
+    assertEquals("Discovery", removed.before().getCollectionName());
+    assertEquals(12L, removed.albumId());
+  }
+
+  @Test
+  void runExclusively_shouldHoldSyncsBackUntilTheActionCompletes() throws InterruptedException {
+    when(artistRepository.findFirstByStorefrontAndArtistId(US, ARTIST.getArtistId()))
+        .thenReturn(Optional.empty());
+    Thread sync =
+        new Thread(() -> syncService.sync(US, ARTIST, List.of(album(1, "Homework", 9.99))));
+
+    syncService.runExclusively(
+        () -> {
+          sync.start();
+          try {
+            sync.join(200);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          assertTrue(sync.isAlive(), "the sync should wait for the exclusive action");
+        });
+
+    sync.join(5_000);
+    assertFalse(sync.isAlive());
+    verify(artistRepository).save(any(Artist.class));
+  }
+
+  @Test
+  void sync_whenAlbumOfAnotherArtistDropped_shouldKeepItsRow() {
+    Album compilation = album(3, "Tron: Legacy Reconfigured", 9.99);
+    ReflectionTestUtils.setField(compilation, "artistId", 1);
+    when(artistRepository.findFirstByStorefrontAndArtistId(US, ARTIST.getArtistId()))
+        .thenReturn(Optional.empty());
+    syncService.sync(US, ARTIST, List.of(album(1, "Homework", 9.99), compilation));
+    when(albumRepository.findByStorefrontAndCollectionIdIn(eq(US), anyCollection()))
+        .thenReturn(List.of(compilation));
+
+    DiscographyDiff diff = syncService.sync(US, ARTIST, List.of(album(1, "Homework", 9.99)));
+
+    assertArrayEquals(new int[] {3}, diff.getRemoved());
+    verify(albumRepository, never()).deleteAll(any());
+    assertNull(published(US, 3).before());
+  }
+
+  @Test
+  void sync_whenSaveFails_shouldSeeTheAlbumsAsAddedAgain() {
+    when(artistRepository.findFirstByStorefrontAndArtistId(US, ARTIST.getArtistId()))
+        .thenReturn(Optional.empty());
+    doThrow(new DataIntegrityViolationException("idx_album_collection_id"))
+        .doReturn(List.of())
+        .when(albumRepository)
+        .saveAll(any());
+
+    assertThrows(
+        DataIntegrityViolationException.class,
+        () -> syncService.sync(US, ARTIST, List.of(album(1, "Homework", 9.99))));
+    DiscographyDiff diff = syncService.sync(US, ARTIST, List.of(album(1, "Homework", 9.99)));
+
+    assertArrayEquals(new int[] {1}, diff.getAdded());
+    verify(albumRepository, times(2)).saveAll(any());
+  }
+
+  @Test
+  void sync_whenCommitFails_shouldKeepThePreviousState() {
+    when(artistRepository.findFirstByStorefrontAndArtistId(US, ARTIST.getArtistId()))
+        .thenReturn(Optional.empty());
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      syncService.sync(US, ARTIST, List.of(album(1, "Homework", 9.99)));
+      TransactionSynchronizationUtils.invokeAfterCompletion(
+          TransactionSynchronizationManager.getSynchronizations(),
+          TransactionSynchronization.STATUS_ROLLED_BACK);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    DiscographyDiff diff = syncService.sync(US, ARTIST, List.of(album(1, "Homework", 9.99)));
+
+    assertArrayEquals(new int[] {1}, diff.getAdded());
+  }
+
+  @Test
+  void sync_whenCommitted_shouldPublishTheStateAfterCommit() {
+    when(artistRepository.findFirstByStorefrontAndArtistId(US, ARTIST.getArtistId()))
+        .thenReturn(Optional.empty());
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      syncService.sync(US, ARTIST, List.of(album(1, "Homework", 9.99)));
+      assertTrue(syncService.findSynced(US, ARTIST.getArtistId()).isEmpty());
+      List<TransactionSynchronization> synchronizations =
+          TransactionSynchronizationManager.getSynchronizations();
+      TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+      TransactionSynchronizationUtils.invokeAfterCompletion(
+          synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertTrue(syncService.sync(US, ARTIST, List.of(album(1, "Homework", 9.99))).isEmpty());
+  }
+
+  @Test
+  void sync_whenNothingChanged_shouldNotWriteOrPublish() {
+    when(artistRepository.findFirstByStorefrontAndArtistId(US, ARTIST.getArtistId()))
+        .thenReturn(Optional.empty());
+    syncService.sync(US, ARTIST, List.of(album(1, "Homework", 9.99)));
+
+    DiscographyDiff diff = syncService.sync(US, ARTIST, List.of(album(1, "Homework", 9.99)));
+
+    assertTrue(diff.isEmpty());
+    verify(albumRepository, times(1)).saveAll(any());
+    verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+  }
+
+  @Test
+  void sync_whenOtherStorefront_shouldNotReuseSyncState() {
+    when(artistRepository.findFirstByStorefrontAndArtistId(US, ARTIST.getArtistId()))
+        .thenReturn(Optional.empty());
+    when(artistRepository.findFirstByStorefrontAndArtistId("GB", ARTIST.getArtistId()))
+        .thenReturn(Optional.empty());
+    syncService.sync(US, ARTIST, List.of(album(1, "Homework", 9.99)));
+
+    DiscographyDiff diff = syncService.sync("GB", ARTIST, List.of(album(1, "Homework", 7.99)));
+
+    assertArrayEquals(new int[] {1}, diff.getAdded());
+    assertEquals(AlbumChangeEvent.Type.ADDED, published("GB", 1).type());
+  }
+
+  @Test
+  void sync_whenArtistChangedOnly_shouldUpdateStoredArtist() {
+    Artist stored = new Artist(5468295, "Daft Punk", "Electronic");
+    when(artistRepository.findFirstByStorefrontAndArtistId(US, ARTIST.getArtistId()))
+        .thenReturn(Optional.of(stored));
+
+    DiscographyDiff diff = syncService.sync(US, ARTIST, List.of());
+
+    assertTrue(diff.isArtistChanged());
+    assertEquals("Dance", stored.getPrimaryGenreName());
+    verify(artistRepository).save(stored);
+    verify(albumRepository, never()).saveAll(any());
+  }
+
+  @Test
+  void findSynced_whenSynced_shouldRebuildTheAlbumsInCollectionIdOrderFromMemory() {
+    when(artistRepository.findFirstByStorefrontAndArtistId(US, ARTIST.getArtistId()))
+        .thenReturn(Optional.of(new Artist(5468295, "Daft Punk", "Dance")));
+    syncService.sync(US, ARTIST, List.of(album(2, "Discovery", 9.99), album(1, "Homework", 9.99)));
+
+    Optional<SyncedDiscography> synced = syncService.findSynced(US, ARTIST.getArtistId());
+
+    assertTrue(synced.isPresent());
+    assertEquals(ARTIST.contentHash(), synced.get().artist().contentHash());
+    assertEquals(2, synced.get().albums().size());
+    assertEquals("Homework", synced.get().albums().get(0).getCollectionName());
+    assertEquals("Discovery", synced.get().albums().get(1).getCollectionName());
+    verify(albumRepository, times(1)).findByStorefrontAndCollectionIdIn(eq(US), anyCollection());
+    verify(artistRepository, times(1)).findFirstByStorefrontAndArtistId(US, 5468295);
+  }
+
+  @Test
+  void findSynced_whenNeverSynced_shouldNotTouchTheDatabase() {
+    assertTrue(syncService.findSynced(US, ARTIST.getArtistId()).isEmpty());
+    verifyNoInteractions(albumRepository, artistRepository);
+  }
+
+  /** Gets the last AlbumChangeEvent published for an album of a storefront. */
+  private AlbumChangeEvent published(String storefront, int collectionId) {
+    ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+    verify(eventPublisher, atLeastOnce()).publishEvent(events.capture());
+    return events.getAllValues().stream()
+        .map(AlbumChangeEvent.class::cast)
+        .filter(e -> e.storefront().equals(storefront) && e.collectionId() == collectionId)
+        .reduce((first, second) -> second)
+        .orElseThrow(() -> new AssertionError("No event for " + storefront + "/" + collectionId));
+  }
+}
@@ -0,0 +1,114 @@
+package com.solo.learning.tdourado.sync;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Estimates the heap retained by an object graph, assuming a 64-bit JVM with compressed oops:
+ * 12-byte object headers, 16-byte array headers, 4-byte references and 8-byte alignment. Strings
+ * are sized from their length rather than walked, as compact strings. Objects reachable more than
+ * once are counted once, and objects of the excluded types are not counted at all.
+ */
+final class HeapFootprint {
+
+  private HeapFootprint() {}
+
+  static long of(Object root, Class<?>... excluded) {
+    Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    Deque<Object> pending = new ArrayDeque<>();
+    pending.push(root);
+    long bytes = 0;
+    while (!pending.isEmpty()) {
+      Object object = pending.pop();
+      if (!seen.add(object) || isExcluded(object.getClass(), excluded)) {
+        continue;
+      }
+      bytes += shallowSize(object);
+      if (object instanceof Object[] array) {
+        for (Object element : array) {
+          if (element != null) {
+            pending.push(element);
+          }
+        }
+      } else if (!(object instanceof String) && !object.getClass().isArray()) {
+        for (Object value : references(object)) {
+          pending.push(value);
+        }
+      }
+    }
+    return bytes;
+  }
+
+  private static boolean isExcluded(Class<?> type, Class<?>[] excluded) {
+    for (Class<?> candidate : excluded) {
+      if (candidate.isAssignableFrom(type)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static long shallowSize(Object object) {
+    if (object instanceof String string) {
+      boolean latin1 = StandardCharsets.ISO_8859_1.newEncoder().canEncode(string);
+      return align(24) + align(16 + (long) string.length() * (latin1 ? 1 : 2));
+    }
+    Class<?> type = object.getClass();
+    if (type.isArray()) {
+      return align(16 + (long) Array.getLength(object) * slotSize(type.getComponentType()));
+    }
+    long size = 12;
+    for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+      for (Field field : current.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers())) {
+          size += slotSize(field.getType());
+        }
+      }
+    }
+    return align(size);
+  }
+
+  private static Iterable<Object> references(Object object) {
+    Deque<Object> values = new ArrayDeque<>();
+    for (Class<?> current = object.getClass(); current != null; current = current.getSuperclass()) {
+      for (Field field : current.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+          field.setAccessible(true);
+          try {
+            Object value = field.get(object);
+            if (value != null) {
+              values.push(value);
+            }
+          } catch (IllegalAccessException exception) {
+            throw new IllegalStateException(exception);
+          }
+        }
+      }
+    }
+    return values;
+  }
+
+  private static int slotSize(Class<?> type) {
+    if (type == long.class || type == double.class) {
+      return 8;
+    } else if (type == int.class || type == float.class) {
+      return 4;
+    } else if (type == short.class || type == char.class) {
+      return 2;
+    } else if (type == byte.class || type == boolean.class) {
+      return 1;
+    }
+    return 4;
+  }
+
+  private static long align(long size) {
+    return (size + 7) & ~7L;
+  }
+}